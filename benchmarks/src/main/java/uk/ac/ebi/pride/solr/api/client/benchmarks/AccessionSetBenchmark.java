@@ -0,0 +1,79 @@
+package uk.ac.ebi.pride.solr.api.client.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.ebi.pride.solr.api.client.HttpTransport;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.WireFormat;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.api.client.utils.CompactAccessionSet;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Download and parsing of a large accession set, as a HashSet (getRequestWithUrl) and as a compact set
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessionSetBenchmark {
+
+    @Param({"10000", "200000"})
+    public int accessions;
+
+    @Param({"APACHE"})
+    public HttpTransport transport;
+
+    @Param({"JSON", "SMILE"})
+    public WireFormat wireFormat;
+
+    private InMemorySolrApiServer server;
+    private SolrApiClientFactory factory;
+    private SolrProjectClient client;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = InMemorySolrApiServer.start();
+        server.seed(Fixtures.accessionOnlyProjects(accessions));
+        factory = new SolrApiClientFactory(SolrApiClientConfig.builder()
+                .apiBaseUrl(server.getBaseUrl()).apiKeyName("key").apiKeyValue("value").appName("benchmarks")
+                .transport(transport)
+                .wireFormat(wireFormat)
+                .build());
+        client = factory.getSolrProjectClient();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        factory.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Optional<Set<String>> getRequestWithUrl() throws Exception {
+        return client.getRequestWithUrl("/project/findAllAccessions");
+    }
+
+    @Benchmark
+    public Optional<CompactAccessionSet> findAllAccessionsCompact() throws Exception {
+        return client.findAllAccessionsCompact();
+    }
+}
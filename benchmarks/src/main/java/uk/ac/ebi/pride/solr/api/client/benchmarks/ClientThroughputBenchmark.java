@@ -0,0 +1,86 @@
+package uk.ac.ebi.pride.solr.api.client.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.ebi.pride.solr.api.client.HttpTransport;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.WireFormat;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end findByAccession and saveAll throughput against the in-memory Solr API, per transport and wire format
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ClientThroughputBenchmark {
+
+    @Param({"SIMPLE", "JDK", "APACHE"})
+    public HttpTransport transport;
+
+    @Param({"JSON", "SMILE"})
+    public WireFormat wireFormat;
+
+    /**
+     * Number of projects per saveAll request
+     */
+    @Param({"50"})
+    public int batchSize;
+
+    private InMemorySolrApiServer server;
+    private SolrApiClientFactory factory;
+    private SolrProjectClient client;
+    private List<PrideSolrProject> batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        batch = Fixtures.projects(batchSize);
+        server = InMemorySolrApiServer.start();
+        server.seed(batch);
+        factory = new SolrApiClientFactory(SolrApiClientConfig.builder()
+                .apiBaseUrl(server.getBaseUrl()).apiKeyName("key").apiKeyValue("value").appName("benchmarks")
+                .transport(transport)
+                .wireFormat(wireFormat)
+                .build());
+        client = factory.getSolrProjectClient();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        factory.close();
+        server.close();
+    }
+
+    @Benchmark
+    public Optional<PrideSolrProject> findByAccession() throws Exception {
+        return client.findByAccession(batch.get(0).getAccession());
+    }
+
+    @Benchmark
+    public void saveAll() throws Exception {
+        client.saveAll(batch);
+    }
+}
@@ -0,0 +1,70 @@
+package uk.ac.ebi.pride.solr.api.client.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic projects, built from the content of the findByKeyword response in a.json
+ */
+final class Fixtures {
+
+    private static final List<JsonNode> TEMPLATES = loadTemplates();
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return count projects, cycling through the templates, with unique accessions and ids
+     */
+    static List<PrideSolrProject> projects(int count) {
+        ObjectMapper objectMapper = Utils.getJacksonObjectMapper();
+        List<PrideSolrProject> projects = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                PrideSolrProject project = objectMapper.treeToValue(TEMPLATES.get(i % TEMPLATES.size()), PrideSolrProject.class);
+                project.setAccession(accession(i));
+                project.setId(String.format("%024x", i));
+                projects.add(project);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return projects;
+    }
+
+    /**
+     * @return count projects with only an accession and an id, e.g. to serve a large accession set
+     */
+    static List<PrideSolrProject> accessionOnlyProjects(int count) {
+        List<PrideSolrProject> projects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PrideSolrProject project = new PrideSolrProject();
+            project.setAccession(accession(i));
+            project.setId(String.format("%024x", i));
+            projects.add(project);
+        }
+        return projects;
+    }
+
+    static String accession(int i) {
+        return (i % 2 == 0 ? "PXD" : "PRD") + String.format("%06d", i / 2);
+    }
+
+    private static List<JsonNode> loadTemplates() {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/a.json")) {
+            List<JsonNode> templates = new ArrayList<>();
+            Utils.getJacksonObjectMapper().readTree(in).path("content").forEach(templates::add);
+            return templates;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package uk.ac.ebi.pride.solr.api.client.benchmarks;
+
+import uk.ac.ebi.pride.solr.api.client.HttpTransport;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.WireFormat;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemoryServerConfig;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.api.client.stub.LoadGenerator;
+import uk.ac.ebi.pride.solr.api.client.stub.LoadReport;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drives the client against the in-memory Solr API at a fixed rate: 80% findByAccession, 20% saveAll of 10 projects.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar uk.ac.ebi.pride.solr.api.client.benchmarks.LoadTest \
+ *      [requestsPerSecond] [seconds] [transport] [wireFormat] [serverLatencyMillis] [serverErrorRate]
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final int PROJECTS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        HttpTransport transport = args.length > 2 ? HttpTransport.valueOf(args[2]) : HttpTransport.APACHE;
+        WireFormat wireFormat = args.length > 3 ? WireFormat.valueOf(args[3]) : WireFormat.JSON;
+        long latencyMillis = args.length > 4 ? Long.parseLong(args[4]) : 5;
+        double errorRate = args.length > 5 ? Double.parseDouble(args[5]) : 0;
+
+        List<PrideSolrProject> projects = Fixtures.projects(PROJECTS);
+        InMemoryServerConfig serverConfig = InMemoryServerConfig.builder()
+                .latency(Duration.ofMillis(latencyMillis))
+                .latencyJitter(Duration.ofMillis(Math.max(1, latencyMillis / 2)))
+                .errorRate(errorRate)
+                .build();
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start(serverConfig)) {
+            server.seed(projects);
+            try (SolrApiClientFactory factory = new SolrApiClientFactory(SolrApiClientConfig.builder()
+                    .apiBaseUrl(server.getBaseUrl()).apiKeyName("key").apiKeyValue("value").appName("load-test")
+                    .transport(transport)
+                    .wireFormat(wireFormat)
+                    .build())) {
+                SolrProjectClient client = factory.getSolrProjectClient();
+
+                LoadReport report = LoadGenerator.builder()
+                        .requestsPerSecond(rate)
+                        .duration(Duration.ofSeconds(seconds))
+                        .build()
+                        .run(sequence -> {
+                            int i = (int) (sequence % PROJECTS);
+                            if (sequence % 5 == 4) {
+                                client.saveAll(projects.subList(i, Math.min(PROJECTS, i + 10)));
+                            } else {
+                                client.findByAccession(projects.get(i).getAccession());
+                            }
+                        });
+                System.out.printf("%s %s: %s%n", transport, wireFormat, report);
+            }
+        }
+    }
+}
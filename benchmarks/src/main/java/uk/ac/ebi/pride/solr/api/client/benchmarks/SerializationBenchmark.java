@@ -0,0 +1,65 @@
+package uk.ac.ebi.pride.solr.api.client.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.ebi.pride.solr.api.client.WireFormat;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of projects with the client mapper, per wire format
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat wireFormat;
+
+    /**
+     * Number of projects of the list (a saveAll body or a search page)
+     */
+    @Param({"1", "100"})
+    public int projects;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private List<PrideSolrProject> list;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = wireFormat.createMapper();
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, PrideSolrProject.class);
+        list = Fixtures.projects(projects);
+        encoded = objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public List<PrideSolrProject> deserialize() throws IOException {
+        return objectMapper.readValue(encoded, listType);
+    }
+}
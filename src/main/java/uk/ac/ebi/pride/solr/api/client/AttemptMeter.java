@@ -0,0 +1,177 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseExtractor;
+import uk.ac.ebi.pride.solr.api.client.metrics.RequestMetrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Measures one attempt of a call for the {@link uk.ac.ebi.pride.solr.api.client.metrics.SolrClientListener}.
+ * The connection streams are wrapped, so that the time spent reading/writing them can be told apart from the time
+ * spent in Jackson producing the body or decoding the response.
+ * The streams are wrapped above the gzip codec: the byte counts are the compressed sizes on the wire, and the time
+ * spent compressing a request or inflating a response is counted as serialization or deserialization time.
+ */
+final class AttemptMeter {
+
+    private final SolrRequest request;
+    private final long start = System.nanoTime();
+    // volatile: the JDK transport writes the body on a thread of its HttpClient, not on the calling thread.
+    // Each field has a single writer at a time, so the increments do not need to be atomic
+    private volatile long requestBytes;
+    private volatile long writeNanos;
+    private volatile long bodyNanos;
+    private volatile long responseBytes;
+    private volatile long readNanos;
+    private volatile long extractNanos;
+    private volatile int status = -1;
+
+    AttemptMeter(SolrRequest request) {
+        this.request = request;
+    }
+
+    StreamingHttpOutputMessage.Body body(StreamingHttpOutputMessage.Body body) {
+        return out -> {
+            long bodyStart = System.nanoTime();
+            try {
+                body.writeTo(new MeteredOutputStream(out));
+            } finally {
+                bodyNanos += System.nanoTime() - bodyStart;
+            }
+        };
+    }
+
+    /**
+     * Records the status and counts the bytes read from the connection
+     */
+    ClientHttpResponse response(ClientHttpResponse response) throws IOException {
+        status = response.getStatusCode().value();
+        return new MeteredResponse(response);
+    }
+
+    <T> T extract(ClientHttpResponse response, ResponseExtractor<T> extractor) throws IOException {
+        long extractStart = System.nanoTime();
+        try {
+            return extractor.extractData(response);
+        } finally {
+            extractNanos += System.nanoTime() - extractStart;
+        }
+    }
+
+    RequestMetrics finish(Throwable error) {
+        if (status < 0 && error instanceof HttpStatusCodeException statusError) {
+            status = statusError.getStatusCode().value();
+        }
+        long total = System.nanoTime() - start;
+        long serialization = Math.max(0, bodyNanos - writeNanos);
+        long deserialization = Math.max(0, extractNanos - readNanos);
+        return new RequestMetrics(request.getPath(), request.getMethod().name(), status, requestBytes, responseBytes,
+                serialization, Math.max(0, total - serialization - deserialization), deserialization, error);
+    }
+
+    private final class MeteredOutputStream extends FilterOutputStream {
+
+        MeteredOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long t = System.nanoTime();
+            out.write(b);
+            writeNanos += System.nanoTime() - t;
+            requestBytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long t = System.nanoTime();
+            out.write(b, off, len);
+            writeNanos += System.nanoTime() - t;
+            requestBytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long t = System.nanoTime();
+            out.flush();
+            writeNanos += System.nanoTime() - t;
+        }
+    }
+
+    private final class MeteredInputStream extends FilterInputStream {
+
+        MeteredInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long t = System.nanoTime();
+            int b = in.read();
+            readNanos += System.nanoTime() - t;
+            if (b >= 0) {
+                responseBytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long t = System.nanoTime();
+            int n = in.read(b, off, len);
+            readNanos += System.nanoTime() - t;
+            if (n > 0) {
+                responseBytes += n;
+            }
+            return n;
+        }
+    }
+
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private InputStream body;
+
+        MeteredResponse(ClientHttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new MeteredInputStream(response.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * How {@link SolrProjectClient#saveAllInChunks(java.util.List, BulkIndexOptions)} splits and sends a bulk index.
+ * A chunk is closed as soon as either limit is reached; a single project bigger than {@code maxChunkBytes}
+ * is sent on its own and reported as an oversized chunk.
+ */
+@Getter
+@Builder
+public class BulkIndexOptions {
+
+    /**
+     * Max serialized size of one saveAll request body
+     */
+    @Builder.Default
+    private final int maxChunkBytes = 8 * 1024 * 1024;
+
+    /**
+     * Max number of projects in one saveAll request
+     */
+    @Builder.Default
+    private final int maxChunkSize = 500;
+
+    /**
+     * Number of chunks that are in flight at the same time
+     */
+    @Builder.Default
+    private final int concurrency = 2;
+
+    public static BulkIndexOptions defaults() {
+        return BulkIndexOptions.builder().build();
+    }
+}
@@ -0,0 +1,86 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.Getter;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a chunked bulk index. Failed chunks keep their projects, so they can be retried with
+ * {@link SolrProjectClient#saveAllInChunks(List, BulkIndexOptions)} again.
+ */
+@Getter
+public class BulkIndexReport {
+
+    private final List<ChunkResult> chunks;
+
+    BulkIndexReport(List<ChunkResult> chunks) {
+        chunks.sort(Comparator.comparingInt(ChunkResult::getIndex));
+        this.chunks = Collections.unmodifiableList(chunks);
+    }
+
+    public boolean isSuccessful() {
+        return chunks.stream().allMatch(ChunkResult::isSuccessful);
+    }
+
+    public List<ChunkResult> getFailedChunks() {
+        return chunks.stream().filter(c -> !c.isSuccessful()).toList();
+    }
+
+    /**
+     * @return all projects of the failed chunks, ready to be sent again
+     */
+    public List<PrideSolrProject> getFailedProjects() {
+        return chunks.stream().filter(c -> !c.isSuccessful()).flatMap(c -> c.getProjects().stream()).toList();
+    }
+
+    public long getTotalBytes() {
+        return chunks.stream().mapToLong(ChunkResult::getBytes).sum();
+    }
+
+    /**
+     * @return chunks bigger than {@link BulkIndexOptions#getMaxChunkBytes()}, each made of a single oversized project
+     */
+    public List<ChunkResult> getOversizedChunks() {
+        return chunks.stream().filter(ChunkResult::isOversized).toList();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkIndexReport{chunks=" + chunks.size() + ", failed=" + getFailedChunks().size()
+                + ", oversized=" + getOversizedChunks().size() + ", bytes=" + getTotalBytes() + "}";
+    }
+
+    @Getter
+    public static class ChunkResult {
+
+        private final int index;
+        private final List<PrideSolrProject> projects;
+        private final long bytes;
+        /**
+         * Bytes over {@link BulkIndexOptions#getMaxChunkBytes()}, 0 if the chunk is within the limit
+         */
+        private final long overshootBytes;
+        private final long elapsedMillis;
+        private final Exception error;
+
+        ChunkResult(int index, List<PrideSolrProject> projects, long bytes, long overshootBytes, long elapsedMillis, Exception error) {
+            this.index = index;
+            this.projects = projects;
+            this.bytes = bytes;
+            this.overshootBytes = overshootBytes;
+            this.elapsedMillis = elapsedMillis;
+            this.error = error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        public boolean isOversized() {
+            return overshootBytes > 0;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.util.StreamUtils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Splits a list of projects into saveAll chunks by serialized size and count, and sends
+ * up to {@link BulkIndexOptions#getConcurrency()} chunks at the same time.
+ * Each project is serialized once into a byte counter to size the chunks, and again straight into the request
+ * stream when its chunk is sent, so no serialized chunk is held in memory.
+ */
+@Slf4j
+class BulkIndexer {
+
+    private final SolrApiRestClient solrApiRestClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter projectWriter;
+    private final String url;
+    private final Consumer<List<PrideSolrProject>> onChunkSent;
+
+    /**
+     * @param onChunkSent called before and after each chunk is sent, e.g. to invalidate cached copies of its projects
+     */
+    BulkIndexer(SolrApiRestClient solrApiRestClient, ObjectMapper objectMapper, String url,
+                Consumer<List<PrideSolrProject>> onChunkSent) {
+        this.solrApiRestClient = solrApiRestClient;
+        this.objectMapper = objectMapper;
+        // flushing after each project would push a write per project to the connection
+        this.projectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.url = url;
+        this.onChunkSent = onChunkSent;
+    }
+
+    BulkIndexReport index(List<PrideSolrProject> projects, BulkIndexOptions options) throws JsonProcessingException, InterruptedException {
+        List<BulkIndexReport.ChunkResult> results = Collections.synchronizedList(new ArrayList<>());
+        Semaphore inFlight = new Semaphore(options.getConcurrency());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Chunk chunk = new Chunk(0);
+            for (PrideSolrProject project : projects) {
+                long size = serializedSize(project);
+                if (!chunk.isEmpty() && (chunk.size() >= options.getMaxChunkSize()
+                        || chunk.bytes + size + 1 > options.getMaxChunkBytes())) {
+                    submit(chunk, options, executor, inFlight, results);
+                    chunk = new Chunk(chunk.index + 1);
+                }
+                chunk.add(project, size);
+            }
+            if (!chunk.isEmpty()) {
+                submit(chunk, options, executor, inFlight, results);
+            }
+        }
+        BulkIndexReport report = new BulkIndexReport(new ArrayList<>(results));
+        log.info("saveAll in chunks finished: {}", report);
+        return report;
+    }
+
+    private long serializedSize(PrideSolrProject project) throws JsonProcessingException {
+        ByteCounter counter = new ByteCounter();
+        try {
+            projectWriter.writeValue(counter, project);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return counter.count;
+    }
+
+    private void submit(Chunk chunk, BulkIndexOptions options, ExecutorService executor, Semaphore inFlight,
+                        List<BulkIndexReport.ChunkResult> results) throws InterruptedException {
+        // only a single project bigger than the limit makes a chunk go over it
+        long overshoot = Math.max(0, chunk.bytes - options.getMaxChunkBytes());
+        if (overshoot > 0) {
+            log.warn("saveAll chunk {} is {} bytes, over the max of {} bytes", chunk.index, chunk.bytes, options.getMaxChunkBytes());
+        }
+        inFlight.acquire();
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            Exception error = null;
+            try {
+                onChunkSent.accept(chunk.projects);
+                solrApiRestClient.sendStreamingPostRequest(url, body(chunk), chunk.bytes);
+                onChunkSent.accept(chunk.projects);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch (Exception e) {
+                log.error("saveAll chunk {} ({} projects) failed: {}", chunk.index, chunk.size(), e.getMessage());
+                error = e;
+            } finally {
+                inFlight.release();
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            results.add(new BulkIndexReport.ChunkResult(chunk.index, chunk.projects, chunk.bytes, overshoot, elapsed, error));
+        });
+    }
+
+    /**
+     * Writes the projects of the chunk as a JSON array directly into the request stream
+     */
+    private StreamingHttpOutputMessage.Body body(Chunk chunk) {
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+                generator.writeStartArray();
+                for (PrideSolrProject project : chunk.projects) {
+                    projectWriter.writeValue(generator, project);
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    private static class Chunk {
+
+        private final int index;
+        private final List<PrideSolrProject> projects = new ArrayList<>();
+        private long bytes = 2; // [ and ]
+
+        Chunk(int index) {
+            this.index = index;
+        }
+
+        void add(PrideSolrProject project, long serializedSize) {
+            if (!projects.isEmpty()) {
+                bytes++; // ,
+            }
+            projects.add(project);
+            bytes += serializedSize;
+        }
+
+        boolean isEmpty() {
+            return projects.isEmpty();
+        }
+
+        int size() {
+            return projects.size();
+        }
+    }
+
+    private static class ByteCounter extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
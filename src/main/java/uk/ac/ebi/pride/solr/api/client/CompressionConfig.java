@@ -0,0 +1,52 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Transparent compression of request and response bodies. Only gzip (and deflate for responses) is supported,
+ * as these are available in the JDK.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class CompressionConfig {
+
+    /**
+     * Ask the server for compressed responses (Accept-Encoding) and decompress them
+     */
+    @Builder.Default
+    private final boolean responseCompression = true;
+
+    /**
+     * Gzip request bodies of the {@link #requestCompressionEndpoints}; the server must accept Content-Encoding: gzip
+     */
+    @Builder.Default
+    private final boolean requestCompression = false;
+
+    /**
+     * Bodies smaller than this are sent as they are. Bodies of unknown size (entities, streamed documents) are first
+     * written into a buffer of this size to find out.
+     */
+    @Builder.Default
+    private final int minRequestBytes = 8 * 1024;
+
+    /**
+     * Paths whose request bodies are compressed
+     */
+    @Builder.Default
+    private final Set<String> requestCompressionEndpoints = Set.of(
+            "/project/saveAll", "/project/save", "/project/update", "/project/upsert");
+
+    public static CompressionConfig defaults() {
+        return CompressionConfig.builder().build();
+    }
+
+    /**
+     * @param bodySize -1 if not known, in which case the body is compressed if the path is eligible
+     */
+    boolean shouldCompress(String path, long bodySize) {
+        return requestCompression && requestCompressionEndpoints.contains(path) && (bodySize < 0 || bodySize >= minRequestBytes);
+    }
+}
@@ -0,0 +1,132 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Gzip request bodies on the fly and decompress gzip/deflate responses, for transports that do not do it themselves
+ * (Apache HttpClient already decompresses responses and removes the Content-Encoding header).
+ */
+final class HttpCompression {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+    static final String ACCEPT_ENCODING = GZIP + ", " + DEFLATE;
+
+    private HttpCompression() {
+    }
+
+    static StreamingHttpOutputMessage.Body gzip(StreamingHttpOutputMessage.Body body) {
+        return out -> {
+            // closing finishes the stream and releases the native deflater, the request stream itself stays open
+            try (GZIPOutputStream gzip = new GZIPOutputStream(StreamUtils.nonClosing(out), 8192)) {
+                body.writeTo(gzip);
+            }
+        };
+    }
+
+    /**
+     * Writes the body into memory as long as it stays under {@code limit} bytes, to decide on compression of a body
+     * whose size is not known up front without buffering large ones
+     *
+     * @return the whole body if smaller than the limit, null otherwise (only the first {@code limit} bytes were written)
+     */
+    static byte[] bufferIfSmaller(StreamingHttpOutputMessage.Body body, int limit) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(limit, 8192)) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                if (count + length >= limit) {
+                    throw LimitReached.INSTANCE;
+                }
+                super.write(bytes, offset, length);
+            }
+
+            @Override
+            public void write(int b) {
+                if (count + 1 >= limit) {
+                    throw LimitReached.INSTANCE;
+                }
+                super.write(b);
+            }
+        };
+        try {
+            body.writeTo(buffer);
+        } catch (RuntimeException | IOException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause == LimitReached.INSTANCE) {
+                    return null;
+                }
+            }
+            throw e;
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Stops {@link #bufferIfSmaller} once the limit is reached; unchecked and without stack trace, as it is expected
+     */
+    private static final class LimitReached extends RuntimeException {
+        private static final LimitReached INSTANCE = new LimitReached();
+
+        private LimitReached() {
+            super("limit reached", null, false, false);
+        }
+    }
+
+    static ClientHttpResponse decompressing(ClientHttpResponse response) {
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || !(encoding.equalsIgnoreCase(GZIP) || encoding.equalsIgnoreCase(DEFLATE))) {
+            return response;
+        }
+        return new ClientHttpResponse() {
+            private InputStream body;
+
+            @Override
+            public HttpStatusCode getStatusCode() throws IOException {
+                return response.getStatusCode();
+            }
+
+            @Override
+            public String getStatusText() throws IOException {
+                return response.getStatusText();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return response.getHeaders();
+            }
+
+            @Override
+            public InputStream getBody() throws IOException {
+                if (body == null) {
+                    PushbackInputStream raw = new PushbackInputStream(response.getBody(), 1);
+                    int first = raw.read();
+                    if (first < 0) {
+                        // e.g. an empty 200 still labelled as gzip
+                        body = InputStream.nullInputStream();
+                        return body;
+                    }
+                    raw.unread(first);
+                    body = encoding.equalsIgnoreCase(GZIP) ? new GZIPInputStream(raw, 8192) : new InflaterInputStream(raw);
+                }
+                return body;
+            }
+
+            @Override
+            public void close() {
+                response.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+/**
+ * The HTTP implementation used underneath the {@link SolrApiRestClient}
+ */
+public enum HttpTransport {
+
+    /**
+     * Plain {@link java.net.HttpURLConnection}. No pool can be configured, kept for backwards compatibility.
+     */
+    SIMPLE,
+
+    /**
+     * JDK {@link java.net.http.HttpClient}. Negotiates HTTP/2 and multiplexes requests over few connections.
+     */
+    JDK,
+
+    /**
+     * Apache HttpClient 5 with a pooled, keep-alive connection manager.
+     */
+    APACHE
+}
@@ -0,0 +1,38 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Micro-batching of findByAccession: distinct lookups arriving within {@code window} are sent together.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class LookupBatchingConfig {
+
+    /**
+     * How long the first lookup of a batch waits for others to join
+     */
+    @Builder.Default
+    private final Duration window = Duration.ofMillis(2);
+
+    /**
+     * A batch is sent straight away once it holds this many accessions
+     */
+    @Builder.Default
+    private final int maxBatchSize = 100;
+
+    /**
+     * Path of an endpoint taking a JSON array of accessions (POST) and answering a JSON array of the projects found.
+     * When null, or when the server answers 404/405/501, each batch falls back to parallel findByAccession GETs.
+     */
+    private final String multiAccessionPath;
+
+    /**
+     * Max number of findByAccession GETs in flight per batch in fallback mode
+     */
+    @Builder.Default
+    private final int fallbackParallelism = 8;
+}
@@ -0,0 +1,137 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.HttpStatusCodeException;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataLoader style batching of findByAccession: distinct accessions requested within the batching window
+ * are sent as one multi-accession request. An accession already pending or in flight is never requested twice,
+ * its callers share the same future.
+ */
+@Slf4j
+class ProjectLookupBatcher {
+
+    private final SolrApiRestClient solrApiRestClient;
+    private final SolrProjectClient solrProjectClient;
+    private final LookupBatchingConfig config;
+    private final Executor flushExecutor;
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<PrideSolrProject>>> inFlight = new ConcurrentHashMap<>();
+    private Map<String, CompletableFuture<Optional<PrideSolrProject>>> pending = new LinkedHashMap<>();
+    private volatile boolean multiAccessionSupported;
+
+    ProjectLookupBatcher(SolrApiRestClient solrApiRestClient, SolrProjectClient solrProjectClient, LookupBatchingConfig config) {
+        this.solrApiRestClient = solrApiRestClient;
+        this.solrProjectClient = solrProjectClient;
+        this.config = config;
+        this.flushExecutor = CompletableFuture.delayedExecutor(config.getWindow().toNanos(), TimeUnit.NANOSECONDS,
+                solrApiRestClient.getAsyncExecutor());
+        this.multiAccessionSupported = config.getMultiAccessionPath() != null;
+    }
+
+    CompletableFuture<Optional<PrideSolrProject>> load(String accession) {
+        CompletableFuture<Optional<PrideSolrProject>> existing = inFlight.get(accession);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Optional<PrideSolrProject>> future;
+        Map<String, CompletableFuture<Optional<PrideSolrProject>>> full = null;
+        synchronized (this) {
+            existing = inFlight.get(accession);
+            if (existing != null) {
+                return existing;
+            }
+            future = new CompletableFuture<>();
+            inFlight.put(accession, future);
+            pending.put(accession, future);
+            if (pending.size() >= config.getMaxBatchSize()) {
+                full = pending;
+                pending = new LinkedHashMap<>();
+            } else if (pending.size() == 1) {
+                flushExecutor.execute(this::flush);
+            }
+        }
+        future.whenComplete((project, error) -> inFlight.remove(accession, future));
+        if (full != null) {
+            send(full);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<Optional<PrideSolrProject>>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        send(batch);
+    }
+
+    private void send(Map<String, CompletableFuture<Optional<PrideSolrProject>>> batch) {
+        if (batch.size() == 1 || !multiAccessionSupported) {
+            sendIndividually(batch);
+            return;
+        }
+        List<String> accessions = new ArrayList<>(batch.keySet());
+        SolrOperation<Map<String, PrideSolrProject>> operation =
+                solrProjectClient.findByAccessionsOperation(config.getMultiAccessionPath(), accessions);
+        solrApiRestClient.executeAsync(operation.request(), operation.extractor()).whenComplete((found, error) -> {
+            if (error == null) {
+                batch.forEach((accession, future) -> future.complete(Optional.ofNullable(found.get(accession))));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof HttpStatusCodeException statusError && SolrProjectClient.UNSUPPORTED_STATUS.contains(statusError.getStatusCode().value())) {
+                log.warn("{} is not supported by the server ({}), falling back to single lookups",
+                        config.getMultiAccessionPath(), statusError.getStatusCode());
+                multiAccessionSupported = false;
+                sendIndividually(batch);
+                return;
+            }
+            batch.values().forEach(future -> future.completeExceptionally(cause));
+        });
+    }
+
+    /**
+     * Fallback: one findByAccession GET per accession, at most {@code fallbackParallelism} at a time
+     */
+    private void sendIndividually(Map<String, CompletableFuture<Optional<PrideSolrProject>>> batch) {
+        ConcurrentLinkedQueue<Map.Entry<String, CompletableFuture<Optional<PrideSolrProject>>>> queue =
+                new ConcurrentLinkedQueue<>(batch.entrySet());
+        int workers = Math.min(config.getFallbackParallelism(), batch.size());
+        for (int i = 0; i < workers; i++) {
+            sendNext(queue);
+        }
+    }
+
+    private void sendNext(ConcurrentLinkedQueue<Map.Entry<String, CompletableFuture<Optional<PrideSolrProject>>>> queue) {
+        Map.Entry<String, CompletableFuture<Optional<PrideSolrProject>>> next = queue.poll();
+        if (next == null) {
+            return;
+        }
+        SolrOperation<Optional<PrideSolrProject>> operation = solrProjectClient.findByAccessionOperation(next.getKey());
+        solrApiRestClient.executeAsync(operation.request(), operation.extractor()).whenComplete((project, error) -> {
+            if (error != null) {
+                next.getValue().completeExceptionally(error);
+            } else {
+                next.getValue().complete(project);
+            }
+            sendNext(queue);
+        });
+    }
+}
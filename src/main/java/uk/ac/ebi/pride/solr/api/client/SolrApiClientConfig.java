@@ -0,0 +1,162 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.Builder;
+import lombok.Getter;
+import uk.ac.ebi.pride.solr.api.client.cache.ProjectCacheConfig;
+import uk.ac.ebi.pride.solr.api.client.limit.ConcurrencyLimitConfig;
+import uk.ac.ebi.pride.solr.api.client.metrics.SolrClientListener;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryPolicy;
+import uk.ac.ebi.pride.solr.api.client.routing.RoutingConfig;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * All the settings used by {@link SolrApiClientFactory} to build the clients.
+ * Only the API url, key and app name are mandatory, everything else has a sensible default.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class SolrApiClientConfig {
+
+    /**
+     * API base url of Repo-WS
+     */
+    private final String apiBaseUrl;
+
+    /**
+     * Several API base urls, load balanced by {@link #routing}; takes precedence over {@link #apiBaseUrl}
+     */
+    private final List<String> apiBaseUrls;
+
+    /**
+     * Node selection, ejection of failing nodes and hedged reads, when several base urls are given
+     */
+    @Builder.Default
+    private final RoutingConfig routing = RoutingConfig.defaults();
+
+    /**
+     * Name of API key
+     */
+    private final String apiKeyName;
+
+    /**
+     * Value of API key
+     */
+    private final String apiKeyValue;
+
+    /**
+     * The name of APP that is initiating this. For Logging & Debug purposes.
+     */
+    private final String appName;
+
+    @Builder.Default
+    private final HttpTransport transport = HttpTransport.APACHE;
+
+    @Builder.Default
+    private final Duration connectTimeout = Duration.ofSeconds(10);
+
+    @Builder.Default
+    private final Duration readTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Max time to wait for a free connection from the pool (APACHE only)
+     */
+    @Builder.Default
+    private final Duration connectionRequestTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Max number of pooled connections (APACHE only)
+     */
+    @Builder.Default
+    private final int maxConnections = 200;
+
+    /**
+     * Max number of pooled connections to a single host (APACHE only)
+     */
+    @Builder.Default
+    private final int maxConnectionsPerRoute = 50;
+
+    /**
+     * Idle connections older than this are closed by a background evictor (APACHE only)
+     */
+    @Builder.Default
+    private final Duration idleConnectionEviction = Duration.ofSeconds(30);
+
+    /**
+     * Connections are never re-used after this age (APACHE only)
+     */
+    @Builder.Default
+    private final Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Max number of in-flight calls issued by {@link SolrProjectAsyncClient}; further calls wait on a virtual thread
+     */
+    @Builder.Default
+    private final int asyncMaxConcurrency = 64;
+
+    /**
+     * Backoff, retry budget and circuit breaker settings
+     */
+    @Builder.Default
+    private final RetryPolicy retryPolicy = RetryPolicy.defaults();
+
+    /**
+     * Adaptive limit of in-flight write calls (saveAll, save, update, upsert, partialUpdate, delete), raised while
+     * latency stays flat and lowered on overload, e.g. {@link ConcurrencyLimitConfig#defaults()}; null (the default)
+     * disables it
+     */
+    private final ConcurrencyLimitConfig writeConcurrencyLimit;
+
+    /**
+     * Request/response body compression
+     */
+    @Builder.Default
+    private final CompressionConfig compression = CompressionConfig.defaults();
+
+    /**
+     * Encoding of project documents and id/accession sets; binary formats fall back to JSON if the server does
+     * not support them
+     */
+    @Builder.Default
+    private final WireFormat wireFormat = WireFormat.JSON;
+
+    /**
+     * Receives per endpoint latency, payload size, (de)serialization time, retry and failure events,
+     * e.g. {@link uk.ac.ebi.pride.solr.api.client.metrics.MicrometerSolrClientListener}
+     */
+    @Builder.Default
+    private final SolrClientListener listener = SolrClientListener.NOOP;
+
+    /**
+     * Read-through cache in front of findByAccession; null (the default) disables it
+     */
+    private final ProjectCacheConfig projectCache;
+
+    /**
+     * Identical concurrent read calls (findByAccession, findAll* scans) share one in-flight request, and therefore
+     * the same returned instance
+     */
+    private final boolean coalesceRequests;
+
+    /**
+     * Micro-batching of concurrent findByAccession calls; null (the default) disables it
+     */
+    private final LookupBatchingConfig lookupBatching;
+
+    /**
+     * Path of the atomic update endpoint used by patch calls. When null, or once the server answers 404/405/501 to
+     * it, a patch is applied to the current project and sent as a full update instead.
+     */
+    @Builder.Default
+    private final String partialUpdatePath = "/project/partialUpdate";
+
+    public static SolrApiClientConfig of(String apiBaseUrl, String apiKeyName, String apiKeyValue, String appName) {
+        return SolrApiClientConfig.builder()
+                .apiBaseUrl(apiBaseUrl)
+                .apiKeyName(apiKeyName)
+                .apiKeyValue(apiKeyValue)
+                .appName(appName)
+                .build();
+    }
+}
@@ -1,9 +1,25 @@
 package uk.ac.ebi.pride.solr.api.client;
 
-public class SolrApiClientFactory {
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Creates the clients of one Solr API, which share the same connection pool and executor.
+ * Thread safe; {@link #close()} releases the pool, after which no client can be obtained.
+ */
+public class SolrApiClientFactory implements Closeable {
+
+    private static final String WARM_UP_ACCESSION = "PXD000000";
+
+    private final SolrApiClientConfig config;
     private final SolrApiRestClient solrApiRestClient;
-    private SolrProjectClient solrProjectClient = null;
+    private volatile SolrProjectClient solrProjectClient = null;
+    private volatile SolrProjectAsyncClient solrProjectAsyncClient = null;
+    private volatile boolean closed;
 
     /**
      * @param apiBaseUrl  API base url of Repo-WS
@@ -12,13 +28,102 @@ public class SolrApiClientFactory {
      * @param appName     The name of APP that is initiating this. For Logging & Debug purposes.
      */
     public SolrApiClientFactory(String apiBaseUrl, String apiKeyName, String apiKeyValue, String appName) {
-        this.solrApiRestClient = new SolrApiRestClient(apiBaseUrl, apiKeyName, apiKeyValue, appName);
+        this(SolrApiClientConfig.of(apiBaseUrl, apiKeyName, apiKeyValue, appName));
+    }
+
+    /**
+     * @param apiBaseUrls API base urls of several Repo-WS nodes, requests are balanced between them
+     * @param apiKeyName  Name of API key
+     * @param apiKeyValue Value of API key
+     * @param appName     The name of APP that is initiating this. For Logging & Debug purposes.
+     */
+    public SolrApiClientFactory(List<String> apiBaseUrls, String apiKeyName, String apiKeyValue, String appName) {
+        this(SolrApiClientConfig.of(null, apiKeyName, apiKeyValue, appName).toBuilder().apiBaseUrls(apiBaseUrls).build());
+    }
+
+    /**
+     * @param config API url, credentials, transport settings (pool size, per-route limit, idle eviction, timeouts)
+     *               and wire format (JSON, or Smile/CBOR with fallback to JSON)
+     * @throws IllegalArgumentException if the config has neither an API base url nor a list of them
+     */
+    public SolrApiClientFactory(SolrApiClientConfig config) {
+        if (config.getApiBaseUrl() == null && (config.getApiBaseUrls() == null || config.getApiBaseUrls().isEmpty())) {
+            throw new IllegalArgumentException("apiBaseUrl or apiBaseUrls is required");
+        }
+        this.config = config;
+        this.solrApiRestClient = new SolrApiRestClient(config);
     }
 
     public SolrProjectClient getSolrProjectClient() {
-        if (solrProjectClient == null) {
-            this.solrProjectClient = new SolrProjectClient(solrApiRestClient);
+        ensureOpen();
+        SolrProjectClient client = solrProjectClient;
+        if (client == null) {
+            synchronized (this) {
+                ensureOpen();
+                client = solrProjectClient;
+                if (client == null) {
+                    client = new SolrProjectClient(solrApiRestClient, config);
+                    solrProjectClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    public SolrProjectAsyncClient getSolrProjectAsyncClient() {
+        ensureOpen();
+        SolrProjectAsyncClient client = solrProjectAsyncClient;
+        if (client == null) {
+            SolrProjectClient projectClient = getSolrProjectClient();
+            synchronized (this) {
+                ensureOpen();
+                client = solrProjectAsyncClient;
+                if (client == null) {
+                    client = new SolrProjectAsyncClient(solrApiRestClient, projectClient);
+                    solrProjectAsyncClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Opens {@code connectionsPerNode} connections to every API node with a lightweight findByAccession probe and
+     * builds the (de)serializers of projects and accession sets, so that the first real calls do not pay for them.
+     * Failed probes are reported, not thrown.
+     */
+    public WarmUpReport warmUp(int connectionsPerNode) throws IOException {
+        if (connectionsPerNode < 1) {
+            throw new IllegalArgumentException("connectionsPerNode must be at least 1: " + connectionsPerNode);
+        }
+        ensureOpen();
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("accession", WARM_UP_ACCESSION);
+        SolrRequest probe = SolrRequest.get(SolrProjectClient.PROJECT_URL_PATH + "/findByAccession").queryParams(queryParams);
+        return solrApiRestClient.warmUp(probe, connectionsPerNode);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Shuts down the async executor and releases the pooled connections. Idempotent.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        solrApiRestClient.close();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("SolrApiClientFactory is closed");
         }
-        return solrProjectClient;
     }
 }
@@ -1,19 +1,42 @@
 package uk.ac.ebi.pride.solr.api.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import uk.ac.ebi.pride.solr.api.client.limit.AdaptiveConcurrencyLimiter;
+import uk.ac.ebi.pride.solr.api.client.metrics.SolrClientListener;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryExecutor;
+import uk.ac.ebi.pride.solr.api.client.routing.Endpoint;
+import uk.ac.ebi.pride.solr.api.client.routing.EndpointRouter;
 
+import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * This class handles all the GET, POST, PUT, DELETE requests to the Solr API
@@ -21,8 +44,19 @@ import java.util.Map;
 @Slf4j
 class SolrApiRestClient {
 
+    static final ResponseExtractor<String> STRING_EXTRACTOR =
+            response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+
+    private final SolrHttpTransport transport;
     private final RestTemplate restTemplate;
-    private final String baseUrl;
+    private final RetryExecutor retryExecutor;
+    private final ExecutorService asyncExecutor;
+    private final Semaphore asyncPermits;
+    private final CompressionConfig compression;
+    private final WireCodec codec;
+    private final SolrClientListener listener;
+    private final EndpointRouter router;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
     private final String apiKeyName;
     private final String apiKeyValue;
     private final String appName;
@@ -36,102 +70,132 @@ class SolrApiRestClient {
      * @param appName     The name of APP that is calling these REST APIs. For Logging & Debug purposes.
      */
     SolrApiRestClient(String baseUrl, String apiKeyName, String apiKeyValue, String appName) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(10000); // 5 seconds
-        factory.setReadTimeout(60000);
-        this.restTemplate = new RestTemplate(factory);
-        this.baseUrl = baseUrl;
-        this.apiKeyName = apiKeyName;
-        this.apiKeyValue = apiKeyValue;
-        this.restTemplate.getMessageConverters().add(0, new StringHttpMessageConverter(Charset.forName("UTF-8")));
-        this.appName = appName;
-
+        this(SolrApiClientConfig.of(baseUrl, apiKeyName, apiKeyValue, appName));
     }
 
-    public String sendPostRequest(String url, String payload, int retryCount) throws InterruptedException {
-        url = baseUrl + url;
-        ResponseEntity<String> response;
-        try {
-            //  create headers
-            HttpHeaders headers = createHeaders();
+    /**
+     * Constructor
+     *
+     * @param config url, credentials, transport (pool, timeouts) and retry settings
+     */
+    SolrApiRestClient(SolrApiClientConfig config) {
+        this.transport = SolrHttpTransport.create(config);
+        this.restTemplate = new RestTemplate(transport.getRequestFactory());
+        this.listener = config.getListener();
+        this.retryExecutor = new RetryExecutor(config.getRetryPolicy(), listener);
+        this.asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.asyncPermits = new Semaphore(config.getAsyncMaxConcurrency(), true);
+        this.compression = config.getCompression();
+        this.codec = new WireCodec(config.getWireFormat());
+        List<String> baseUrls = config.getApiBaseUrls() == null || config.getApiBaseUrls().isEmpty()
+                ? List.of(config.getApiBaseUrl()) : config.getApiBaseUrls();
+        this.router = new EndpointRouter(baseUrls, config.getRouting());
+        this.writeLimiter = config.getWriteConcurrencyLimit() == null ? null
+                : new AdaptiveConcurrencyLimiter(config.getWriteConcurrencyLimit());
+        this.apiKeyName = config.getApiKeyName();
+        this.apiKeyValue = config.getApiKeyValue();
+        this.restTemplate.getMessageConverters().add(0, new StringHttpMessageConverter(Charset.forName("UTF-8")));
+        this.appName = config.getAppName();
+    }
 
-            // build the request
-            HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity(payload, headers);
-            log.info("POST Request : " + url);
-            response = restTemplate.exchange(url, HttpMethod.POST, requestEntity, String.class);
+    /**
+     * Sends the request, retrying it according to the retry policy, and hands the (successful) response
+     * stream to the extractor, so large responses can be parsed without buffering them into a String first.
+     *
+     * @return the value produced by the extractor
+     */
+    <T> T execute(SolrRequest request, ResponseExtractor<T> responseExtractor) throws InterruptedException {
+        return retryExecutor.execute(request.getPath(), () -> executeOnce(request, responseExtractor), request.isIdempotent());
+    }
 
-            HttpStatusCode statusCode = response.getStatusCode();
-            if (statusCode != HttpStatus.OK && statusCode != HttpStatus.CREATED && statusCode != HttpStatus.ACCEPTED) {
-                String errorMessage = "[POST] Received invalid response for : " + url + " : " + response;
-                log.error(errorMessage);
-                throw new IllegalStateException(errorMessage);
+    /**
+     * Asynchronous {@link #execute(SolrRequest, ResponseExtractor)}: each attempt runs on a virtual thread and holds
+     * one of the async concurrency permits, backoff delays are scheduled without holding a thread or a permit.
+     * Limited writes wait for their write slot before taking a permit, so that queued writes do not starve reads.
+     */
+    <T> CompletableFuture<T> executeAsync(SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        return retryExecutor.executeAsync(request.getPath(), () -> CompletableFuture.supplyAsync(() -> {
+            boolean limited = isWriteLimited(request);
+            if (limited) {
+                acquireWriteSlot();
             }
-        } catch (RestClientException e) {
-            log.info("POST Request payload : " + payload);
-            log.error(e.getMessage(), e);
-            if(e instanceof HttpServerErrorException exception){
-                HttpServerErrorException httpServerErrorException = exception;
-                log.error(httpServerErrorException.getResponseBodyAsString());
-                log.error(httpServerErrorException.getStatusText());
+            try {
+                asyncPermits.acquire();
+            } catch (InterruptedException e) {
+                if (limited) {
+                    writeLimiter.onIgnored();
+                }
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
             }
-            throw e;
-        } catch (Exception ex) {
-            log.error("Caught exception while sendPostRequest: " + ex.getMessage());
-            retryCount++;
-            if (retryCount <= 10) {
-                Thread.sleep(10000);
-                return sendPostRequest(url, payload, retryCount);
-            } else {
-                throw ex;
+            try {
+                return limited ? executeLimited(request, responseExtractor) : executeUnlimited(request, responseExtractor);
+            } finally {
+                asyncPermits.release();
             }
-        }
-        return response.getBody();
+        }, asyncExecutor), request.isIdempotent(), asyncExecutor);
     }
 
-    public String sendDeleteRequest(String url, MultiValueMap<String, String> queryParams, int retryCount) throws InterruptedException {
-        ResponseEntity<String> response;
-        try {
-            //  create headers
-            HttpHeaders headers = createHeaders();
+    /**
+     * @return number of async calls waiting for a free concurrency slot
+     */
+    int getAsyncQueueLength() {
+        return asyncPermits.getQueueLength();
+    }
 
-            UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUrl + url);
-            if (queryParams != null) {
-                uriBuilder.queryParams(queryParams);
-            }
-            URI completeUrl = uriBuilder.build().toUri();
+    ExecutorService getAsyncExecutor() {
+        return asyncExecutor;
+    }
 
-            // build the request
-            HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity(headers);
+    RetryExecutor getRetryExecutor() {
+        return retryExecutor;
+    }
 
-            log.info("DELETE Request : " + completeUrl);
-            response = restTemplate.exchange(completeUrl, HttpMethod.DELETE, requestEntity, String.class);
+    WireCodec getCodec() {
+        return codec;
+    }
 
-            HttpStatusCode statusCode = response.getStatusCode();
-            if (statusCode != HttpStatus.NO_CONTENT) {
-                String errorMessage = "[DELETE] Received invalid response for : " + completeUrl + " : " + response;
-                log.error(errorMessage);
-                throw new IllegalStateException(errorMessage);
-            }
-        } catch (RestClientException e) {
-            log.error(e.getMessage(), e);
-            throw e;
-        } catch (Exception ex) {
-            log.error("Caught exception while sendDeleteRequest: " + ex.getMessage());
-            retryCount++;
-            if (retryCount <= 10) {
-                Thread.sleep(10000);
-                return sendDeleteRequest(url, queryParams, retryCount);
-            } else {
-                throw ex;
-            }
-        }
-        return response.getBody();
+    EndpointRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * @return null if write concurrency limiting is disabled
+     */
+    AdaptiveConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    public String sendPostRequest(String url, String payload) throws InterruptedException {
+        return execute(SolrRequest.post(url, payload), STRING_EXTRACTOR);
+    }
+
+    /**
+     * POST request whose body is written straight into the request stream (no intermediate String).
+     * The body may be written more than once if the request is retried.
+     *
+     * @param url  Path after the base URL
+     * @param body writes the JSON payload
+     * @return response body
+     */
+    public String sendStreamingPostRequest(String url, StreamingHttpOutputMessage.Body body) throws InterruptedException {
+        return sendStreamingPostRequest(url, body, -1);
+    }
+
+    /**
+     * @param bodySize size of the body in bytes if known up front (decides on compression), -1 otherwise
+     */
+    public String sendStreamingPostRequest(String url, StreamingHttpOutputMessage.Body body, long bodySize) throws InterruptedException {
+        return execute(SolrRequest.post(url, body).bodySize(bodySize), STRING_EXTRACTOR);
+    }
+
+    public String sendDeleteRequest(String url, MultiValueMap<String, String> queryParams) throws InterruptedException {
+        return execute(SolrRequest.delete(url).queryParams(queryParams), STRING_EXTRACTOR);
     }
 
     /**
      * This method construct the URL with URI parameters and Query parameters and
      * perform a get call
-     * //TODO retry logics
      *
      * @param url         Path after the base URL
      * @param uriParams   URI parameters
@@ -139,137 +203,383 @@ class SolrApiRestClient {
      * @return JSON object in String format
      */
     public String sendGetRequestWithRetry(String url, Map<String, String> uriParams, MultiValueMap<String, String> queryParams) throws InterruptedException {
+        return execute(SolrRequest.get(url).uriParams(uriParams).queryParams(queryParams), STRING_EXTRACTOR);
+    }
 
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUrl + url);
-        if (queryParams != null) {
-            uriBuilder.queryParams(queryParams);
-        }
-        URI completeUrl = (uriParams != null) ? uriBuilder.buildAndExpand(uriParams).toUri() : uriBuilder.build().toUri();
+    /**
+     * Same as {@link #sendGetRequestWithRetry(String, Map, MultiValueMap)} but hands the response body stream to
+     * the given extractor, so large responses can be parsed without buffering them into a String first.
+     *
+     * @param url               Path after the base URL
+     * @param queryParams       Query parameters
+     * @param responseExtractor reads the (successful) response
+     * @return the value produced by the extractor
+     */
+    public <T> T sendGetRequest(String url, MultiValueMap<String, String> queryParams,
+                                ResponseExtractor<T> responseExtractor) throws InterruptedException {
+        return execute(SolrRequest.get(url).queryParams(queryParams), responseExtractor);
+    }
 
-        return makeGetRequest(completeUrl, 0);
+    public String sendPostRequestWithJwtAuthorization(String url, String payload, String jwtToken) throws InterruptedException {
+        return execute(SolrRequest.post(url, payload).header("Authorization", "Bearer " + jwtToken), STRING_EXTRACTOR);
     }
 
+    public String sendPostRequestForFindByKeyword(String url, String payload,
+                                                  MultiValueMap<String, String> queryParams) throws InterruptedException {
+        // a search does not change anything on the server, so it is safe to retry
+        return execute(SolrRequest.post(url, payload).queryParams(queryParams).idempotent(true), STRING_EXTRACTOR);
+    }
 
     /**
-     * This method sets HTTP headers, perform the rest call and returns results in String format
-     *
-     * @param uri constructed URL with URI and query parameters
-     * @return
+     * Sends {@code connectionsPerNode} concurrent copies of the probe request to every node, without retries, which
+     * leaves that many established connections in the pool, and primes the (de)serializers of the codec.
+     * Failed probes are counted, not thrown, as the API may legitimately be down when the application starts.
      */
-    private String makeGetRequest(URI uri, int retryCount) throws InterruptedException {
-        ResponseEntity<String> response;
-        try {
-            //  create headers
-            HttpHeaders headers = createHeaders();
+    WarmUpReport warmUp(SolrRequest probe, int connectionsPerNode) throws IOException {
+        long start = System.currentTimeMillis();
+        codec.warmUp();
+        List<CompletableFuture<Boolean>> probes = new ArrayList<>();
+        for (Endpoint endpoint : router.getEndpoints()) {
+            for (int i = 0; i < connectionsPerNode; i++) {
+                probes.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        // drained so that the connection goes back to the pool instead of being discarded
+                        executeOn(endpoint, probe, response -> StreamUtils.drain(response.getBody()));
+                        return true;
+                    } catch (HttpClientErrorException e) {
+                        // the node answered, so the connection is established
+                        return true;
+                    } catch (RuntimeException e) {
+                        log.warn("Warm-up probe of {} failed: {}", endpoint, e.getMessage());
+                        return false;
+                    }
+                }, asyncExecutor));
+            }
+        }
+        int succeeded = (int) probes.stream().filter(CompletableFuture::join).count();
+        return new WarmUpReport(router.getEndpoints().size(), succeeded, probes.size() - succeeded,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Releases the pooled connections of the underlying transport
+     */
+    void close() throws IOException {
+        asyncExecutor.shutdown();
+        transport.close();
+    }
+
+    /**
+     * Single attempt of the rest call, on the node picked by the router. GETs are hedged when enabled.
+     */
+    private <T> T executeOnce(SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        if (isWriteLimited(request)) {
+            acquireWriteSlot();
+            return executeLimited(request, responseExtractor);
+        }
+        return executeUnlimited(request, responseExtractor);
+    }
 
-            // build the request
-            HttpEntity entity = new HttpEntity(headers);
+    private <T> T executeUnlimited(SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        if (request.getMethod() == HttpMethod.GET && router.isHedging()) {
+            return executeHedged(request, responseExtractor);
+        }
+        return executeOn(router.choose(null), request, responseExtractor);
+    }
 
-            log.info("GET Request : " + uri);
-            response = restTemplate.exchange(uri, HttpMethod.GET, entity, String.class);
+    private boolean isWriteLimited(SolrRequest request) {
+        return writeLimiter != null && writeLimiter.appliesTo(request.getPath());
+    }
 
-            HttpStatusCode statusCode = response.getStatusCode();
-            if (statusCode != HttpStatus.OK && statusCode != HttpStatus.CREATED && statusCode != HttpStatus.ACCEPTED) {
-                String errorMessage = "[GET] Received invalid response for : " + uri + " : " + response;
-                log.error(errorMessage);
-                throw new IllegalStateException(errorMessage);
-            }
-        } catch (RestClientException e) {
-            log.error(e.getMessage(), e);
-            throw e;
-        } catch (Exception ex) {
-            log.error("Caught exception while makeGetRequest: " + ex.getMessage());
-            retryCount++;
-            if (retryCount <= 10) {
-                Thread.sleep(10000);
-                return  makeGetRequest(uri, retryCount);
+    private void acquireWriteSlot() {
+        try {
+            writeLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Write attempt holding a slot of the adaptive limiter, released here; overload answers and I/O failures shrink
+     * the limit
+     */
+    private <T> T executeLimited(SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        long start = System.nanoTime();
+        try {
+            T result = executeOn(router.choose(null), request, responseExtractor);
+            writeLimiter.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            boolean overload = RetryExecutor.isServerDown(e)
+                    || e instanceof HttpClientErrorException clientError && clientError.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+            if (overload) {
+                writeLimiter.onDropped();
             } else {
-                throw ex;
+                writeLimiter.onIgnored();
             }
+            throw e;
         }
-        return response.getBody();
     }
 
-    public String sendPostRequestWithJwtAuthorization(String url, String payload, String jwtToken, int retryCount) throws InterruptedException {
-        url = baseUrl + url;
-        ResponseEntity<String> response;
+    /**
+     * Sends the read to a first node and, if it has not answered within the hedge delay, a duplicate to a second one;
+     * the first successful answer wins, the other call is aborted, and the attempt only fails if both do
+     */
+    private <T> T executeHedged(SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        Endpoint primary = router.choose(null);
+        long hedgeDelay = router.getHedgeDelayNanos();
+        if (hedgeDelay < 0) {
+            return executeOn(primary, request, responseExtractor);
+        }
+        HedgedCall<T> first = HedgedCall.start(() -> executeOn(primary, request, responseExtractor), asyncExecutor);
         try {
-            //  create headers
-            HttpHeaders headers = createHeaders();
-            headers.set("Authorization", "Bearer " + jwtToken);
+            return first.get(hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // too slow, hedge below
+        } catch (ExecutionException e) {
+            return await(first);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.cancel(true);
+            throw new CompletionException(e);
+        }
+        Endpoint secondary = router.choose(primary);
+        if (secondary == null || !router.tryAcquireHedge()) {
+            return awaitHedged(first, first);
+        }
+        log.debug("Hedging {} {} to {}", request.getMethod(), request.getPath(), secondary);
+        HedgedCall<T> second = HedgedCall.start(() -> executeOn(secondary, request, responseExtractor), asyncExecutor);
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (HedgedCall<T> call : List.of(first, second)) {
+            HedgedCall<T> other = call == first ? second : first;
+            call.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                    other.cancel(true);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+        return awaitHedged(winner, first, second);
+    }
 
-            // build the request
-            HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity(payload, headers);
+    /**
+     * Waits for the result, aborting the calls if the waiting thread is interrupted
+     */
+    @SafeVarargs
+    private static <T> T awaitHedged(CompletableFuture<T> result, HedgedCall<T>... calls) {
+        try {
+            return await(result);
+        } finally {
+            if (Thread.currentThread().isInterrupted()) {
+                for (HedgedCall<T> call : calls) {
+                    call.cancel(true);
+                }
+            }
+        }
+    }
 
-            log.info("Post Request With Jwt: " + url);
-            response = restTemplate.exchange(url, HttpMethod.POST, requestEntity, String.class);
+    /**
+     * Call of a hedged read running on its own virtual thread. Cancelling it interrupts that thread, which closes the
+     * socket the call is blocked on.
+     */
+    private static final class HedgedCall<T> extends CompletableFuture<T> {
+
+        private volatile Thread thread;
+
+        static <T> HedgedCall<T> start(Supplier<T> call, ExecutorService executor) {
+            HedgedCall<T> hedgedCall = new HedgedCall<>();
+            executor.execute(() -> {
+                hedgedCall.thread = Thread.currentThread();
+                try {
+                    if (!hedgedCall.isDone()) {
+                        hedgedCall.complete(call.get());
+                    }
+                } catch (RuntimeException e) {
+                    hedgedCall.completeExceptionally(e);
+                } finally {
+                    hedgedCall.thread = null;
+                }
+            });
+            return hedgedCall;
+        }
 
-            HttpStatusCode statusCode = response.getStatusCode();
-            if (statusCode != HttpStatus.OK && statusCode != HttpStatus.CREATED && statusCode != HttpStatus.ACCEPTED) {
-                String errorMessage = "[POST] Received invalid response for : " + url + " : " + response;
-                log.error(errorMessage);
-                throw new IllegalStateException(errorMessage);
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Thread running = thread;
+            if (cancelled && running != null) {
+                running.interrupt();
             }
-        } catch (RestClientException e) {
-            log.error(e.getMessage(), e);
-            throw e;
-        } catch (Exception ex) {
-            log.error("Caught exception while sendPostRequestWithJwtAuthorization: " + ex.getMessage());
-            retryCount++;
-            if (retryCount <= 10) {
-                Thread.sleep(10000);
-                return sendPostRequestWithJwtAuthorization(url, payload, jwtToken, retryCount);
-            } else {
-                throw ex;
+            return cancelled;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
         }
-        return response.getBody();
     }
 
-    public String sendPostRequestForFindByKeyword(String url, String payload,
-                                                  MultiValueMap<String, String> queryParams, int retryCount) throws InterruptedException {
+    /**
+     * Single attempt on the given node, reported to the router. An entity rejected with 415 in a binary format is
+     * sent again as JSON.
+     */
+    private <T> T executeOn(Endpoint endpoint, SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        router.begin(endpoint);
+        long start = System.nanoTime();
+        try {
+            T result = executeWithFallback(endpoint, request, responseExtractor);
+            long latency = System.nanoTime() - start;
+            router.onSuccess(endpoint, latency);
+            if (request.getMethod() == HttpMethod.GET && router.isHedging()) {
+                router.recordRead(latency);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            // a hedged call aborted because the other one won says nothing about the node
+            boolean aborted = Thread.currentThread().isInterrupted();
+            router.onFailure(endpoint, System.nanoTime() - start, RetryExecutor.isServerDown(e) && !aborted);
+            throw e;
+        }
+    }
 
-        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(baseUrl + url);
-        if (queryParams != null) {
-            uriBuilder.queryParams(queryParams);
+    private <T> T executeWithFallback(Endpoint endpoint, SolrRequest request, ResponseExtractor<T> responseExtractor) {
+        WireFormat format = codec.requestFormat();
+        try {
+            return executeOnce(endpoint, request, responseExtractor, format);
+        } catch (HttpClientErrorException e) {
+            if (request.getEntity() == null || format == WireFormat.JSON
+                    || e.getStatusCode() != HttpStatus.UNSUPPORTED_MEDIA_TYPE) {
+                throw e;
+            }
+            codec.binaryRequestsRejected();
+            return executeOnce(endpoint, request, responseExtractor, WireFormat.JSON);
+        }
+    }
+
+    /**
+     * Single attempt, measured for the listener unless it is the no-op one
+     */
+    private <T> T executeOnce(Endpoint endpoint, SolrRequest request, ResponseExtractor<T> responseExtractor, WireFormat format) {
+        if (listener == SolrClientListener.NOOP) {
+            return executeOnce(endpoint, request, responseExtractor, format, null);
         }
-        URI completeUrl = uriBuilder.build().toUri();
-        ResponseEntity<String> response;
+        AttemptMeter meter = new AttemptMeter(request);
+        listener.onAttemptStart(request.getPath());
+        try {
+            T result = executeOnce(endpoint, request, responseExtractor, format, meter);
+            listener.onAttemptEnd(meter.finish(null));
+            return result;
+        } catch (RuntimeException e) {
+            listener.onAttemptEnd(meter.finish(e));
+            throw e;
+        }
+    }
 
+    /**
+     * This method sets HTTP headers, performs a single attempt of the rest call and extracts the result from the response stream
+     */
+    private <T> T executeOnce(Endpoint endpoint, SolrRequest request, ResponseExtractor<T> responseExtractor,
+                              WireFormat format, AttemptMeter meter) {
+        URI uri = buildUri(endpoint, request);
+        HttpMethod method = request.getMethod();
         try {
-            // build the request
-            HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity(payload,
-                    createHeaders());
-            response = restTemplate.exchange(completeUrl, HttpMethod.POST, requestEntity, String.class);
-
-            HttpStatusCode statusCode = response.getStatusCode();
-            if (statusCode != HttpStatus.OK && statusCode != HttpStatus.CREATED && statusCode != HttpStatus.ACCEPTED) {
-                String errorMessage = "[POST] Received invalid response for : " + url + " : " + response;
-                log.error(errorMessage);
-                throw new IllegalStateException(errorMessage);
+            //  create headers
+            HttpHeaders headers = createHeaders();
+            headers.addAll(request.getHeaders());
+            StreamingHttpOutputMessage.Body body = request.getBody();
+            if (request.getEntity() != null) {
+                ObjectMapper mapper = codec.mapper(format);
+                body = out -> mapper.writeValue(StreamUtils.nonClosing(out), request.getEntity());
+                headers.setContentType(format.getMediaType());
+            }
+            long bodySize = request.getBodySize();
+            if (body != null && bodySize < 0 && compression.shouldCompress(request.getPath(), bodySize)) {
+                // size unknown (entities, streamed documents): small bodies are buffered and sent as they are
+                byte[] small;
+                try {
+                    small = HttpCompression.bufferIfSmaller(body, compression.getMinRequestBytes());
+                } catch (IOException e) {
+                    // reported as RestTemplate reports a body it fails to write
+                    throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), e);
+                }
+                if (small != null) {
+                    body = out -> out.write(small);
+                    bodySize = small.length;
+                }
+            }
+            if (body != null && compression.shouldCompress(request.getPath(), bodySize)) {
+                body = HttpCompression.gzip(body);
+                headers.set(HttpHeaders.CONTENT_ENCODING, HttpCompression.GZIP);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
             }
+            if (compression.isResponseCompression()) {
+                headers.set(HttpHeaders.ACCEPT_ENCODING, HttpCompression.ACCEPT_ENCODING);
+            }
+            StreamingHttpOutputMessage.Body requestBody = body == null || meter == null ? body : meter.body(body);
+
+            log.debug("{} Request : {}", method, uri);
+            return restTemplate.execute(uri, method, clientRequest -> {
+                clientRequest.getHeaders().addAll(headers);
+                if (requestBody == null) {
+                    return;
+                }
+                if (clientRequest instanceof StreamingHttpOutputMessage streamingRequest) {
+                    streamingRequest.setBody(requestBody);
+                } else {
+                    requestBody.writeTo(clientRequest.getBody());
+                }
+            }, rawResponse -> {
+                ClientHttpResponse response = HttpCompression.decompressing(meter == null ? rawResponse : meter.response(rawResponse));
+                HttpStatusCode statusCode = response.getStatusCode();
+                if (!isExpectedStatus(method, statusCode)) {
+                    String errorMessage = "[" + method + "] Received invalid response for : " + uri + " : " + statusCode;
+                    log.error(errorMessage);
+                    throw new IllegalStateException(errorMessage);
+                }
+                return meter == null ? responseExtractor.extractData(response) : meter.extract(response, responseExtractor);
+            });
         } catch (RestClientException e) {
-            log.info("POST Request payload : " + payload);
-            log.error(e.getMessage(), e);
-            throw e;
-        } catch (Exception ex) {
-            log.error("Caught exception while sendPostRequestForFindByKeyword: " + ex.getMessage());
-            retryCount++;
-            if (retryCount <= 10) {
-                Thread.sleep(10000);
-                return sendPostRequestForFindByKeyword(url, payload, queryParams, retryCount);
-            } else {
-                throw ex;
+            log.error("{} {} failed: {}", method, uri, e.getMessage());
+            if (e instanceof HttpServerErrorException exception) {
+                log.error(exception.getResponseBodyAsString());
+                log.error(exception.getStatusText());
             }
+            throw e;
         }
-        return response.getBody();
     }
 
+    private static boolean isExpectedStatus(HttpMethod method, HttpStatusCode statusCode) {
+        if (method == HttpMethod.DELETE) {
+            return statusCode == HttpStatus.NO_CONTENT;
+        }
+        return statusCode == HttpStatus.OK || statusCode == HttpStatus.CREATED || statusCode == HttpStatus.ACCEPTED;
+    }
+
+    private URI buildUri(Endpoint endpoint, SolrRequest request) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromHttpUrl(endpoint.getBaseUrl() + request.getPath());
+        if (request.getQueryParams() != null) {
+            uriBuilder.queryParams(request.getQueryParams());
+        }
+        return (request.getUriParams() != null) ? uriBuilder.buildAndExpand(request.getUriParams()).toUri() : uriBuilder.build().toUri();
+    }
 
     private HttpHeaders createHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(Collections.singletonList(MediaType.ALL));
+        headers.setAccept(codec.accept());
         headers.set(apiKeyName, apiKeyValue);
         headers.set("app", appName);
         return headers;
@@ -0,0 +1,103 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+
+/**
+ * Builds the {@link ClientHttpRequestFactory} for the configured {@link HttpTransport}
+ * and owns the underlying connections, so they can be released on {@link #close()}.
+ */
+@Slf4j
+class SolrHttpTransport implements Closeable {
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final AutoCloseable resource;
+
+    private SolrHttpTransport(ClientHttpRequestFactory requestFactory, AutoCloseable resource) {
+        this.requestFactory = requestFactory;
+        this.resource = resource;
+    }
+
+    static SolrHttpTransport create(SolrApiClientConfig config) {
+        return switch (config.getTransport()) {
+            case SIMPLE -> simple(config);
+            case JDK -> jdk(config);
+            case APACHE -> apache(config);
+        };
+    }
+
+    private static SolrHttpTransport simple(SolrApiClientConfig config) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(config.getConnectTimeout());
+        factory.setReadTimeout(config.getReadTimeout());
+        return new SolrHttpTransport(factory, null);
+    }
+
+    private static SolrHttpTransport jdk(SolrApiClientConfig config) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(config.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(config.getReadTimeout());
+        return new SolrHttpTransport(factory, httpClient);
+    }
+
+    private static SolrHttpTransport apache(SolrApiClientConfig config) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxConnections())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(config.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(config.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(config.getConnectionTimeToLive()))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(config.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(config.getReadTimeout()))
+                        .build())
+                // retries are handled by the RetryExecutor, not by the transport
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(config.getIdleConnectionEviction()))
+                .build();
+        return new SolrHttpTransport(new HttpComponentsClientHttpRequestFactory(httpClient), httpClient);
+    }
+
+    ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to close HTTP transport", e);
+        }
+    }
+}
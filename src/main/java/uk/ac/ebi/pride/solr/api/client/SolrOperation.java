@@ -0,0 +1,10 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import org.springframework.web.client.ResponseExtractor;
+
+/**
+ * A request together with the way its response is read. The same operation can be run
+ * synchronously or asynchronously by {@link SolrApiRestClient}.
+ */
+record SolrOperation<T>(SolrRequest request, ResponseExtractor<T> extractor) {
+}
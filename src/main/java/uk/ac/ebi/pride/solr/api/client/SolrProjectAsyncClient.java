@@ -0,0 +1,159 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.solr.api.client.export.ExportOptions;
+import uk.ac.ebi.pride.solr.api.client.limit.AdaptiveConcurrencyLimiter;
+import uk.ac.ebi.pride.solr.api.client.patch.ProjectPatch;
+import uk.ac.ebi.pride.solr.api.client.projection.ProjectView;
+import uk.ac.ebi.pride.solr.api.client.search.KeywordSearchRequest;
+import uk.ac.ebi.pride.solr.api.client.search.SearchPage;
+import uk.ac.ebi.pride.solr.api.client.utils.CompactAccessionSet;
+import uk.ac.ebi.pride.solr.api.client.utils.CompactIdSet;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+/**
+ * Non-blocking counterpart of {@link SolrProjectClient}.
+ * Every attempt runs on its own virtual thread, and at most {@code asyncMaxConcurrency} attempts hit the API at the same time.
+ * Retries are scheduled on a timer, so no thread is parked during the backoff.
+ * Failures complete the returned future exceptionally.
+ */
+@Slf4j
+public class SolrProjectAsyncClient {
+
+    private final SolrApiRestClient solrApiRestClient;
+    private final SolrProjectClient solrProjectClient;
+
+    SolrProjectAsyncClient(SolrApiRestClient solrApiRestClient, SolrProjectClient solrProjectClient) {
+        this.solrApiRestClient = solrApiRestClient;
+        this.solrProjectClient = solrProjectClient;
+    }
+
+    public CompletableFuture<Optional<PrideSolrProject>> findByAccession(String accession) {
+        return solrProjectClient.findByAccessionAsync(accession);
+    }
+
+    /**
+     * @see SolrProjectClient#findByAccession(String, Set)
+     */
+    public CompletableFuture<Optional<ProjectView>> findByAccession(String accession, Set<String> fields) {
+        return solrProjectClient.findByAccessionAsync(accession, fields);
+    }
+
+    /**
+     * @see SolrProjectClient#findByAccessionLazy(String)
+     */
+    public CompletableFuture<Optional<ProjectView>> findByAccessionLazy(String accession) {
+        return solrProjectClient.findByAccessionAsync(accession, null);
+    }
+
+    public CompletableFuture<Void> saveAll(List<PrideSolrProject> projects) {
+        return execute(solrProjectClient.saveAllOperation(projects));
+    }
+
+    public CompletableFuture<BulkIndexReport> saveAllInChunks(List<PrideSolrProject> projects, BulkIndexOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return solrProjectClient.saveAllInChunks(projects, options);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, solrApiRestClient.getAsyncExecutor());
+    }
+
+    public CompletableFuture<PrideSolrProject> save(PrideSolrProject project) {
+        return execute(solrProjectClient.saveOperation(project));
+    }
+
+    public CompletableFuture<PrideSolrProject> update(PrideSolrProject project) {
+        return execute(solrProjectClient.updateOperation(project));
+    }
+
+    public CompletableFuture<PrideSolrProject> upsert(PrideSolrProject project) {
+        return execute(solrProjectClient.upsertOperation(project));
+    }
+
+    /**
+     * @see SolrProjectClient#patch(ProjectPatch)
+     */
+    public CompletableFuture<Void> patch(ProjectPatch patch) {
+        if (patch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return solrProjectClient.patchAsync(patch, false).thenApply(updated -> null);
+    }
+
+    public CompletableFuture<PrideSolrProject> patchAndGet(ProjectPatch patch) {
+        return solrProjectClient.patchAsync(patch, true);
+    }
+
+    public CompletableFuture<Void> deleteProjectById(String id) {
+        return execute(solrProjectClient.deleteProjectByIdOperation(id));
+    }
+
+    public CompletableFuture<Void> deleteAll() {
+        return execute(solrProjectClient.deleteAllOperation());
+    }
+
+    public CompletableFuture<Optional<Set<String>>> findAllAccessions() {
+        return solrProjectClient.executeAsync("findAllAccessions", solrProjectClient.findAllAccessionsOperation());
+    }
+
+    public CompletableFuture<Optional<Set<String>>> findAllIds() {
+        return solrProjectClient.executeAsync("findAllIds", solrProjectClient.findAllIdsOperation());
+    }
+
+    public CompletableFuture<Optional<CompactAccessionSet>> findAllAccessionsCompact() {
+        return solrProjectClient.executeAsync("findAllAccessionsCompact", solrProjectClient.findAllAccessionsCompactOperation());
+    }
+
+    public CompletableFuture<Optional<CompactIdSet>> findAllIdsCompact() {
+        return solrProjectClient.executeAsync("findAllIdsCompact", solrProjectClient.findAllIdsCompactOperation());
+    }
+
+    public CompletableFuture<Optional<Set<String>>> findProjectAccessionsWithEmptyFileNames() {
+        return solrProjectClient.executeAsync("findProjectAccessionsWithEmptyFileNames", solrProjectClient.findProjectAccessionsWithEmptyFileNamesOperation());
+    }
+
+    public CompletableFuture<Optional<Set<String>>> findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications() {
+        return solrProjectClient.executeAsync("findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications", solrProjectClient.findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentificationsOperation());
+    }
+
+    public CompletableFuture<Optional<SearchPage>> findByKeyword(KeywordSearchRequest request) {
+        return solrProjectClient.findByKeywordAsync(request);
+    }
+
+    /**
+     * Every project of the archive, fetched as the subscriber requests them, see {@link SolrProjectClient#exportAll(ExportOptions)}
+     */
+    public Flow.Publisher<PrideSolrProject> exportAll(ExportOptions options) {
+        return solrProjectClient.exportPublisher(options);
+    }
+
+    /**
+     * @return number of calls waiting for a free concurrency slot
+     */
+    public int getQueueLength() {
+        return solrApiRestClient.getAsyncQueueLength();
+    }
+
+    /**
+     * @see SolrProjectClient#getWriteLimiter()
+     */
+    public Optional<AdaptiveConcurrencyLimiter> getWriteLimiter() {
+        return solrProjectClient.getWriteLimiter();
+    }
+
+    private <T> CompletableFuture<T> execute(SolrOperation<T> operation) {
+        return solrApiRestClient.executeAsync(operation.request(), operation.extractor());
+    }
+}
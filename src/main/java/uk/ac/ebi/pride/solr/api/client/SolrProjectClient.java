@@ -1,18 +1,49 @@
 package uk.ac.ebi.pride.solr.api.client;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import uk.ac.ebi.pride.solr.api.client.cache.ProjectCache;
+import uk.ac.ebi.pride.solr.api.client.cache.ProjectCacheStats;
+import uk.ac.ebi.pride.solr.api.client.export.ExportOptions;
+import uk.ac.ebi.pride.solr.api.client.export.NdjsonProjectWriter;
+import uk.ac.ebi.pride.solr.api.client.export.ProjectExportIterator;
+import uk.ac.ebi.pride.solr.api.client.export.ProjectExportPublisher;
+import uk.ac.ebi.pride.solr.api.client.limit.AdaptiveConcurrencyLimiter;
+import uk.ac.ebi.pride.solr.api.client.patch.ProjectPatch;
+import uk.ac.ebi.pride.solr.api.client.projection.ProjectView;
+import uk.ac.ebi.pride.solr.api.client.search.KeywordSearchRequest;
+import uk.ac.ebi.pride.solr.api.client.search.SearchPage;
+import uk.ac.ebi.pride.solr.api.client.search.SearchResultIterator;
+import uk.ac.ebi.pride.solr.api.client.utils.CompactAccessionSet;
+import uk.ac.ebi.pride.solr.api.client.utils.CompactIdSet;
+import uk.ac.ebi.pride.solr.api.client.utils.JsonStringArrays;
 import uk.ac.ebi.pride.solr.api.client.utils.Utils;
 import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 
 /**
  * This class handles all the methods related to Project
@@ -21,100 +52,656 @@ import java.util.Set;
 public class SolrProjectClient {
 
     private final ObjectMapper objectMapper;
+    private final WireCodec codec;
     private final SolrApiRestClient solrApiRestClient;
+    private final ProjectCache projectCache;
+    private final SingleFlight singleFlight;
+    private final ProjectLookupBatcher lookupBatcher;
+    private final String partialUpdatePath;
+    private volatile boolean partialUpdateSupported;
 
-    private static final String PROJECT_URL_PATH = "/project";
+    static final String PROJECT_URL_PATH = "/project";
+
+    /**
+     * Answers of a server without an optional endpoint (multi-accession lookup, partial update)
+     */
+    static final Set<Integer> UNSUPPORTED_STATUS = Set.of(404, 405, 501);
 
     SolrProjectClient(SolrApiRestClient solrApiRestClient) {
+        this(solrApiRestClient, SolrApiClientConfig.builder().build());
+    }
+
+    /**
+     * @param config cache, coalescing and batching settings
+     */
+    SolrProjectClient(SolrApiRestClient solrApiRestClient, SolrApiClientConfig config) {
         this.objectMapper = Utils.getJacksonObjectMapper();
+        this.codec = solrApiRestClient.getCodec();
         this.solrApiRestClient = solrApiRestClient;
+        this.projectCache = config.getProjectCache() == null ? null
+                : new ProjectCache(config.getProjectCache(), codec.preferredMapper());
+        this.singleFlight = config.isCoalesceRequests() ? new SingleFlight() : null;
+        this.lookupBatcher = config.getLookupBatching() == null ? null
+                : new ProjectLookupBatcher(solrApiRestClient, this, config.getLookupBatching());
+        this.partialUpdatePath = config.getPartialUpdatePath();
+        this.partialUpdateSupported = partialUpdatePath != null;
     }
 
     public Optional<PrideSolrProject> findByAccession(String accession) throws IOException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/findByAccession";
-        // set query parameters
-        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
-        queryParams.add("accession", accession);
-
-        String response = solrApiRestClient.sendGetRequestWithRetry(url, null, queryParams);
-        if (response == null || response.equalsIgnoreCase("null") || response.trim().isEmpty()) {
-            return Optional.empty();
+        ProjectCache.Hit hit = cachedProject(accession);
+        if (hit != null) {
+            return hit.project();
         }
-        PrideSolrProject prideSolrProject = objectMapper.readValue(response, PrideSolrProject.class);
-        return Optional.ofNullable(prideSolrProject);
+        if (lookupBatcher != null) {
+            return SingleFlight.await(lookupBatcher.load(accession));
+        }
+        return execute("findByAccession:" + accession, findByAccessionOperation(accession));
+    }
+
+    /**
+     * Projected lookup: asks the API for the given fields only, and keeps only those (plus id and accession) in the
+     * returned view, whatever the API sent. Not served from the project cache.
+     *
+     * @param fields field names, see {@link uk.ac.ebi.pride.solr.api.client.projection.ProjectFields}
+     */
+    public Optional<ProjectView> findByAccession(String accession, Set<String> fields) throws IOException, InterruptedException {
+        Set<String> fieldList = new TreeSet<>(fields);
+        return execute("findByAccession:" + accession + fieldList, findByAccessionViewOperation(accession, fieldList));
+    }
+
+    /**
+     * Full lookup whose fields are only decoded when first accessed, so the large file name, peptide and protein
+     * collections are never materialized unless asked for. Not served from the project cache.
+     */
+    public Optional<ProjectView> findByAccessionLazy(String accession) throws IOException, InterruptedException {
+        return execute("findByAccessionLazy:" + accession, findByAccessionViewOperation(accession, null));
     }
 
     public void saveAll(List<PrideSolrProject> projects) throws JsonProcessingException, InterruptedException {
+        execute(saveAllOperation(projects));
+    }
+
+    /**
+     * Bulk index: splits the projects into several saveAll requests by serialized size and count, and sends them
+     * concurrently. A failed chunk does not fail the whole batch, it is listed in the returned report for retry.
+     * Chunks are always sent as JSON, as they are assembled from individually serialized projects.
+     */
+    public BulkIndexReport saveAllInChunks(List<PrideSolrProject> projects, BulkIndexOptions options) throws JsonProcessingException, InterruptedException {
         final String url = PROJECT_URL_PATH + "/saveAll";
-        String payload = objectMapper.writeValueAsString(projects);
-        solrApiRestClient.sendPostRequest(url, payload, 0);
+        return new BulkIndexer(solrApiRestClient, objectMapper, url, this::invalidateCache).index(projects, options);
     }
 
     public PrideSolrProject save(PrideSolrProject project) throws JsonProcessingException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/save";
-        return postObjectWithUrl(project, url);
+        return execute(saveOperation(project));
     }
 
     public PrideSolrProject update(PrideSolrProject project) throws JsonProcessingException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/update";
-        return postObjectWithUrl(project, url);
+        return execute(updateOperation(project));
     }
 
     public PrideSolrProject upsert(PrideSolrProject project) throws JsonProcessingException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/upsert";
-        return postObjectWithUrl(project, url);
+        return execute(upsertOperation(project));
     }
 
-    private PrideSolrProject postObjectWithUrl(PrideSolrProject project, String url) throws JsonProcessingException, InterruptedException {
-        String payload = objectMapper.writeValueAsString(project);
-        String response = solrApiRestClient.sendPostRequest(url, payload, 0);
+    /**
+     * Sends only the changed fields of a project (see {@link ProjectPatch#diff}) and does not read back the
+     * updated document. An empty patch sends nothing.
+     * If the server has no partial update endpoint (see {@link SolrApiClientConfig#getPartialUpdatePath()}), the
+     * project is read, patched and sent as a full update; that fallback needs the accession in the patch and is not
+     * atomic, a concurrent write between the read and the update is lost.
+     */
+    public void patch(ProjectPatch patch) throws JsonProcessingException, InterruptedException {
+        if (!patch.isEmpty()) {
+            patch(patch, false);
+        }
+    }
 
-        return objectMapper.readValue(response, PrideSolrProject.class);
+    /**
+     * Same as {@link #patch(ProjectPatch)}, returning the updated document echoed by the API
+     */
+    public PrideSolrProject patchAndGet(ProjectPatch patch) throws JsonProcessingException, InterruptedException {
+        return patch(patch, true);
     }
 
-    public void deleteProjectById(String id) throws JsonProcessingException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/deleteProjectById";
+    private PrideSolrProject patch(ProjectPatch patch, boolean readEcho) throws InterruptedException {
+        if (partialUpdateSupported) {
+            try {
+                return execute(patchOperation(patch, readEcho));
+            } catch (HttpStatusCodeException e) {
+                if (!isPartialUpdateUnsupported(e)) {
+                    throw e;
+                }
+            }
+        }
+        Optional<PrideSolrProject> current = execute(findByAccessionOperation(fallbackAccession(patch)));
+        return execute(updateOperation(applyPatch(patch, current)));
+    }
 
-        String payload = objectMapper.writeValueAsString(id);
-        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
-        queryParams.add("id", id);
-        solrApiRestClient.sendDeleteRequest(url, queryParams, 0);
+    CompletableFuture<PrideSolrProject> patchAsync(ProjectPatch patch, boolean readEcho) {
+        if (!partialUpdateSupported) {
+            return patchByUpdateAsync(patch);
+        }
+        SolrOperation<PrideSolrProject> operation = patchOperation(patch, readEcho);
+        return solrApiRestClient.executeAsync(operation.request(), operation.extractor())
+                .exceptionallyCompose(error -> isPartialUpdateUnsupported(error) ? patchByUpdateAsync(patch)
+                        : CompletableFuture.<PrideSolrProject>failedFuture(error));
+    }
+
+    private CompletableFuture<PrideSolrProject> patchByUpdateAsync(ProjectPatch patch) {
+        SolrOperation<Optional<PrideSolrProject>> find;
+        try {
+            find = findByAccessionOperation(fallbackAccession(patch));
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return solrApiRestClient.executeAsync(find.request(), find.extractor()).thenCompose(current -> {
+            SolrOperation<PrideSolrProject> update = updateOperation(applyPatch(patch, current));
+            return solrApiRestClient.executeAsync(update.request(), update.extractor());
+        });
+    }
+
+    /**
+     * The server answered 404/405/501 to a partial update: send full updates from now on
+     */
+    private boolean isPartialUpdateUnsupported(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof HttpStatusCodeException statusError) || !UNSUPPORTED_STATUS.contains(statusError.getStatusCode().value())) {
+            return false;
+        }
+        if (partialUpdateSupported) {
+            partialUpdateSupported = false;
+            log.warn("{} is not supported by the server ({}), falling back to full updates", partialUpdatePath, statusError.getStatusCode());
+        }
+        return true;
+    }
+
+    private static String fallbackAccession(ProjectPatch patch) {
+        if (patch.getAccession() == null) {
+            throw new IllegalStateException("Partial updates are not supported by the server and the patch of project "
+                    + patch.getId() + " has no accession to read the project for a full update");
+        }
+        return patch.getAccession();
+    }
+
+    private static PrideSolrProject applyPatch(ProjectPatch patch, Optional<PrideSolrProject> current) {
+        PrideSolrProject project = current.orElseThrow(() -> new IllegalStateException(
+                "Project " + patch.getAccession() + " to patch was not found"));
+        return patch.applyTo(project);
+    }
+
+    public void deleteProjectById(String id) throws JsonProcessingException, InterruptedException {
+        execute(deleteProjectByIdOperation(id));
     }
 
     public void deleteAll() throws JsonProcessingException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/deleteAll";
-        solrApiRestClient.sendDeleteRequest(url, null, 0);
+        execute(deleteAllOperation());
     }
 
     public Optional<Set<String>> findAllAccessions() throws IOException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/findAllAccessions";
-        return getRequestWithUrl(url);
+        return execute("findAllAccessions", findAllAccessionsOperation());
     }
 
     public Optional<Set<String>> findAllIds() throws IOException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/findAllIds";
-        return getRequestWithUrl(url);
+        return execute("findAllIds", findAllIdsOperation());
     }
 
     public Optional<Set<String>> findProjectAccessionsWithEmptyFileNames() throws IOException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/findProjectAccessionsWithEmptyFileNames";
-        return getRequestWithUrl(url);
+        return execute("findProjectAccessionsWithEmptyFileNames", findProjectAccessionsWithEmptyFileNamesOperation());
     }
 
     public Optional<Set<String>> findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications() throws IOException, InterruptedException {
-        final String url = PROJECT_URL_PATH + "/findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications";
-        return getRequestWithUrl(url);
+        return execute("findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications",
+                findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentificationsOperation());
+    }
+
+    /**
+     * Same as {@link #findAllAccessions()}, but PXD/PRD accessions are packed into a sorted int array
+     */
+    public Optional<CompactAccessionSet> findAllAccessionsCompact() throws IOException, InterruptedException {
+        return execute("findAllAccessionsCompact", findAllAccessionsCompactOperation());
+    }
+
+    /**
+     * Same as {@link #findAllIds()}, but 24 hex char ids are packed into 12 bytes each
+     */
+    public Optional<CompactIdSet> findAllIdsCompact() throws IOException, InterruptedException {
+        return execute("findAllIdsCompact", findAllIdsCompactOperation());
+    }
+
+    /**
+     * One page of a keyword search; facets, highlights and field stats are decoded when first accessed
+     *
+     * @return empty if the API answered with an empty body
+     */
+    public Optional<SearchPage> findByKeyword(KeywordSearchRequest request) throws IOException, InterruptedException {
+        return execute(findByKeywordKey(request), findByKeywordOperation(request));
+    }
+
+    /**
+     * Iterates over all the results of a keyword search, starting at the page of the request, fetching the next
+     * {@code prefetchPages} pages in the background while the current one is consumed
+     */
+    public SearchResultIterator findAllByKeyword(KeywordSearchRequest request, int prefetchPages) {
+        return new SearchResultIterator(page -> findByKeywordAsync(request.withPage(page)).thenApply(result -> result.orElse(null)),
+                request.getPage(), prefetchPages);
+    }
+
+    /**
+     * Iterates over every project of the archive, in accession order: the accessions are listed once (packed, see
+     * {@link #findAllAccessionsCompact()}) and the projects fetched ahead of the consumer with bounded prefetch and
+     * parallelism. Bypasses the project cache and the request coalescing, so that memory use stays constant.
+     */
+    public ProjectExportIterator exportAll(ExportOptions options) throws IOException, InterruptedException {
+        CompactAccessionSet accessions = findAllAccessionsCompact().orElse(CompactAccessionSet.builder().build());
+        return new ProjectExportIterator(accessions.iterator(), accessions.size(), this::exportProjectAsync, options);
+    }
 
+    /**
+     * Cold publisher of {@link #exportAll(ExportOptions)}: the accessions are listed when a subscriber first requests
+     * projects, and projects fetched as it requests them
+     */
+    public Flow.Publisher<PrideSolrProject> exportPublisher(ExportOptions options) {
+        return new ProjectExportPublisher(() -> exportAll(options), solrApiRestClient.getAsyncExecutor());
+    }
+
+    /**
+     * Writes every project of the archive to the stream as newline delimited JSON, then closes it
+     *
+     * @return number of projects written
+     */
+    public long exportAllAsNdjson(OutputStream out, ExportOptions options) throws IOException, InterruptedException {
+        try (NdjsonProjectWriter writer = new NdjsonProjectWriter(out, codec.mapper(WireFormat.JSON));
+             ProjectExportIterator projects = exportAll(options)) {
+            return writer.writeAll(projects);
+        }
     }
 
     public Optional<Set<String>> getRequestWithUrl(String url) throws JsonProcessingException, InterruptedException {
-        String response = solrApiRestClient.sendGetRequestWithRetry(url, null, null);
-        if (response == null || response.equalsIgnoreCase("null") || response.trim().isEmpty()) {
-            return Optional.empty();
+        return execute(stringSetOperation(url));
+    }
+
+    /**
+     * @return hit/miss/eviction counters of the findByAccession cache, empty if caching is disabled
+     */
+    public Optional<ProjectCacheStats> getCacheStats() {
+        return Optional.ofNullable(projectCache).map(ProjectCache::stats);
+    }
+
+    /**
+     * @return the adaptive write concurrency limiter, with its current limit, in-flight count and queue depth;
+     * empty if disabled
+     */
+    public Optional<AdaptiveConcurrencyLimiter> getWriteLimiter() {
+        return Optional.ofNullable(solrApiRestClient.getWriteLimiter());
+    }
+
+    /**
+     * findByAccession decoded straight from the response stream, without the cache, batcher or coalescer
+     */
+    private CompletableFuture<Optional<PrideSolrProject>> exportProjectAsync(String accession) {
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("accession", accession);
+        return solrApiRestClient.executeAsync(SolrRequest.get(PROJECT_URL_PATH + "/findByAccession").queryParams(queryParams),
+                this::readOptionalProject);
+    }
+
+    /**
+     * @return the cached answer for this accession, or null on a miss or when caching is disabled
+     */
+    ProjectCache.Hit cachedProject(String accession) throws IOException {
+        return projectCache == null ? null : projectCache.get(accession);
+    }
+
+    private void invalidateCache(List<PrideSolrProject> projects) {
+        if (projectCache != null) {
+            projectCache.invalidateAll(projects);
         }
-        Set<String> projectAccessionsOrIds = objectMapper.readValue(response, new TypeReference<Set<String>>() {
+    }
+
+    /**
+     * Async findByAccession through the cache, the batcher or the coalescer, whichever are enabled
+     */
+    CompletableFuture<Optional<PrideSolrProject>> findByAccessionAsync(String accession) {
+        try {
+            ProjectCache.Hit hit = cachedProject(accession);
+            if (hit != null) {
+                return CompletableFuture.completedFuture(hit.project());
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (lookupBatcher != null) {
+            return lookupBatcher.load(accession);
+        }
+        return executeAsync("findByAccession:" + accession, findByAccessionOperation(accession));
+    }
+
+    CompletableFuture<Optional<ProjectView>> findByAccessionAsync(String accession, Set<String> fields) {
+        Set<String> fieldList = fields == null ? null : new TreeSet<>(fields);
+        String key = fields == null ? "findByAccessionLazy:" + accession : "findByAccession:" + accession + fieldList;
+        return executeAsync(key, findByAccessionViewOperation(accession, fieldList));
+    }
+
+    CompletableFuture<Optional<SearchPage>> findByKeywordAsync(KeywordSearchRequest request) {
+        return executeAsync(findByKeywordKey(request), findByKeywordOperation(request));
+    }
+
+    private static String findByKeywordKey(KeywordSearchRequest request) {
+        return "findByKeyword:" + request.getKeywords() + request.toQueryParams();
+    }
+
+    /**
+     * Runs a read operation asynchronously, sharing the call with identical in-flight calls when coalescing is enabled
+     */
+    <T> CompletableFuture<T> executeAsync(String coalescingKey, SolrOperation<T> operation) {
+        if (singleFlight == null) {
+            return solrApiRestClient.executeAsync(operation.request(), operation.extractor());
+        }
+        return singleFlight.callAsync(coalescingKey, () -> solrApiRestClient.executeAsync(operation.request(), operation.extractor()));
+    }
+
+    private <T> T execute(SolrOperation<T> operation) throws InterruptedException {
+        return solrApiRestClient.execute(operation.request(), operation.extractor());
+    }
+
+    /**
+     * Runs a read operation, sharing the call with identical in-flight calls when coalescing is enabled.
+     * A response that can not be parsed is thrown as the {@link JsonProcessingException} itself, not wrapped by the RestTemplate.
+     */
+    private <T> T execute(String coalescingKey, SolrOperation<T> operation) throws IOException, InterruptedException {
+        try {
+            if (singleFlight == null) {
+                return execute(operation);
+            }
+            return singleFlight.call(coalescingKey, () -> execute(operation));
+        } catch (ResourceAccessException e) {
+            if (e.getCause() instanceof JsonProcessingException parseError) {
+                throw parseError;
+            }
+            throw e;
+        }
+    }
+
+    // ---- operations, shared with SolrProjectAsyncClient ----
+
+    SolrOperation<Optional<PrideSolrProject>> findByAccessionOperation(String accession) {
+        final String url = PROJECT_URL_PATH + "/findByAccession";
+        // set query parameters
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("accession", accession);
+        SolrRequest request = SolrRequest.get(url).queryParams(queryParams);
+        if (projectCache == null) {
+            return new SolrOperation<>(request, this::readOptionalProject);
+        }
+        long stamp = projectCache.stamp();
+        return new SolrOperation<>(request, response -> {
+            ObjectMapper mapper = codec.mapper(response);
+            byte[] body = StreamUtils.copyToByteArray(response.getBody());
+            Optional<PrideSolrProject> project = readOptionalProject(mapper, body);
+            if (project.isPresent()) {
+                projectCache.putFound(stamp, accession, cacheBytes(mapper, body, project.get()), project.get());
+            } else {
+                projectCache.putNotFound(stamp, accession);
+            }
+            return project;
         });
-        return Optional.ofNullable(projectAccessionsOrIds);
     }
-}
 
+    /**
+     * @param fields fields to request and keep, all of them if null
+     */
+    SolrOperation<Optional<ProjectView>> findByAccessionViewOperation(String accession, Set<String> fields) {
+        final String url = PROJECT_URL_PATH + "/findByAccession";
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("accession", accession);
+        if (fields != null) {
+            queryParams.add("fields", String.join(",", fields));
+        }
+        return new SolrOperation<>(SolrRequest.get(url).queryParams(queryParams), response -> {
+            ObjectMapper mapper = codec.mapper(response);
+            try (JsonParser parser = mapper.getFactory().createParser(response.getBody())) {
+                return Optional.ofNullable(ProjectView.read(parser, mapper, fields));
+            }
+        });
+    }
+
+    /**
+     * Looks up several accessions with one request to an endpoint answering an array of the projects found
+     *
+     * @param url path of the multi-accession endpoint
+     * @return the projects found, by accession
+     */
+    SolrOperation<Map<String, PrideSolrProject>> findByAccessionsOperation(String url, List<String> accessions) {
+        SolrRequest request = SolrRequest.postEntity(url, accessions).idempotent(true);
+        long stamp = projectCache == null ? 0 : projectCache.stamp();
+        return new SolrOperation<>(request, response -> {
+            Map<String, PrideSolrProject> found = new HashMap<>();
+            ObjectMapper mapper = codec.mapper(response);
+            try (JsonParser parser = mapper.getFactory().createParser(response.getBody())) {
+                JsonToken token = parser.nextToken();
+                if (token != null && token != JsonToken.VALUE_NULL) {
+                    if (token != JsonToken.START_ARRAY) {
+                        throw new JsonParseException(parser, "Expected a JSON array of projects but got " + token);
+                    }
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == null) {
+                            throw new JsonParseException(parser, "Unexpected end of JSON array");
+                        }
+                        if (token == JsonToken.VALUE_NULL) {
+                            continue;
+                        }
+                        PrideSolrProject project;
+                        if (projectCache == null) {
+                            project = mapper.readValue(parser, PrideSolrProject.class);
+                        } else {
+                            TreeNode node = mapper.readTree(parser);
+                            byte[] raw = codec.preferredMapper().writeValueAsBytes(node);
+                            project = codec.preferredMapper().readValue(raw, PrideSolrProject.class);
+                            projectCache.putFound(stamp, project.getAccession(), raw, project);
+                        }
+                        found.put(project.getAccession(), project);
+                    }
+                }
+            }
+            if (projectCache != null) {
+                accessions.stream().filter(a -> !found.containsKey(a)).forEach(a -> projectCache.putNotFound(stamp, a));
+            }
+            return found;
+        });
+    }
+
+    SolrOperation<Void> saveAllOperation(List<PrideSolrProject> projects) {
+        final String url = PROJECT_URL_PATH + "/saveAll";
+        invalidateCache(projects);
+        return new SolrOperation<>(SolrRequest.postEntity(url, projects),
+                response -> {
+                    invalidateCache(projects);
+                    return null;
+                });
+    }
+
+    SolrOperation<PrideSolrProject> saveOperation(PrideSolrProject project) {
+        return postProjectOperation(project, PROJECT_URL_PATH + "/save", false);
+    }
+
+    SolrOperation<PrideSolrProject> updateOperation(PrideSolrProject project) {
+        return postProjectOperation(project, PROJECT_URL_PATH + "/update", true);
+    }
+
+    SolrOperation<PrideSolrProject> upsertOperation(PrideSolrProject project) {
+        return postProjectOperation(project, PROJECT_URL_PATH + "/upsert", true);
+    }
+
+    /**
+     * @param idempotent update and upsert of a full document can be repeated safely, save can not
+     */
+    private SolrOperation<PrideSolrProject> postProjectOperation(PrideSolrProject project, String url, boolean idempotent) {
+        SolrRequest request = SolrRequest.postEntity(url, project).idempotent(idempotent);
+        if (projectCache == null) {
+            return new SolrOperation<>(request, response -> codec.mapper(response).readValue(response.getBody(), PrideSolrProject.class));
+        }
+        // invalidate up front as well, in case the write lands but its response is lost
+        projectCache.invalidate(project);
+        return new SolrOperation<>(request, response -> {
+            ObjectMapper mapper = codec.mapper(response);
+            byte[] body = StreamUtils.copyToByteArray(response.getBody());
+            PrideSolrProject saved = mapper.readValue(body, PrideSolrProject.class);
+            projectCache.invalidate(project);
+            projectCache.refresh(saved, cacheBytes(mapper, body, saved));
+            return saved;
+        });
+    }
+
+    /**
+     * @param readEcho decode the updated document echoed by the API, otherwise the response body is left unread
+     */
+    SolrOperation<PrideSolrProject> patchOperation(ProjectPatch patch, boolean readEcho) {
+        // set, add-distinct and remove give the same result when applied twice
+        SolrRequest request = SolrRequest.postEntity(partialUpdatePath, patch).idempotent(true);
+        PrideSolrProject key = new PrideSolrProject();
+        key.setId(patch.getId());
+        key.setAccession(patch.getAccession());
+        if (projectCache != null) {
+            projectCache.invalidate(key);
+        }
+        return new SolrOperation<>(request, response -> {
+            if (projectCache != null) {
+                projectCache.invalidate(key);
+            }
+            if (!readEcho) {
+                return null;
+            }
+            ObjectMapper mapper = codec.mapper(response);
+            byte[] body = StreamUtils.copyToByteArray(response.getBody());
+            PrideSolrProject updated = mapper.readValue(body, PrideSolrProject.class);
+            if (projectCache != null) {
+                projectCache.refresh(updated, cacheBytes(mapper, body, updated));
+            }
+            return updated;
+        });
+    }
+
+    SolrOperation<Void> deleteProjectByIdOperation(String id) {
+        final String url = PROJECT_URL_PATH + "/deleteProjectById";
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("id", id);
+        if (projectCache != null) {
+            projectCache.invalidateById(id);
+        }
+        return new SolrOperation<>(SolrRequest.delete(url).queryParams(queryParams), response -> {
+            if (projectCache != null) {
+                projectCache.invalidateById(id);
+            }
+            return null;
+        });
+    }
+
+    SolrOperation<Void> deleteAllOperation() {
+        final String url = PROJECT_URL_PATH + "/deleteAll";
+        return new SolrOperation<>(SolrRequest.delete(url), response -> {
+            if (projectCache != null) {
+                projectCache.invalidateAll();
+            }
+            return null;
+        });
+    }
+
+    SolrOperation<Optional<SearchPage>> findByKeywordOperation(KeywordSearchRequest searchRequest) {
+        final String url = PROJECT_URL_PATH + "/findByKeyword";
+        // a search does not change anything on the server, so it is safe to retry
+        SolrRequest request = SolrRequest.postEntity(url, searchRequest.getKeywords())
+                .queryParams(searchRequest.toQueryParams())
+                .idempotent(true);
+        return new SolrOperation<>(request, response -> {
+            ObjectMapper mapper = codec.mapper(response);
+            try (JsonParser parser = mapper.getFactory().createParser(response.getBody())) {
+                return Optional.ofNullable(SearchPage.read(parser, mapper));
+            }
+        });
+    }
+
+    SolrOperation<Optional<Set<String>>> findAllAccessionsOperation() {
+        return stringSetOperation(PROJECT_URL_PATH + "/findAllAccessions");
+    }
+
+    SolrOperation<Optional<Set<String>>> findAllIdsOperation() {
+        return stringSetOperation(PROJECT_URL_PATH + "/findAllIds");
+    }
+
+    SolrOperation<Optional<Set<String>>> findProjectAccessionsWithEmptyFileNamesOperation() {
+        return stringSetOperation(PROJECT_URL_PATH + "/findProjectAccessionsWithEmptyFileNames");
+    }
+
+    SolrOperation<Optional<Set<String>>> findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentificationsOperation() {
+        return stringSetOperation(PROJECT_URL_PATH + "/findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications");
+    }
+
+    private SolrOperation<Optional<Set<String>>> stringSetOperation(String url) {
+        return new SolrOperation<>(SolrRequest.get(url), response -> {
+            Set<String> projectAccessionsOrIds = new HashSet<>();
+            return streamStrings(response, projectAccessionsOrIds::add) ? Optional.of(projectAccessionsOrIds) : Optional.empty();
+        });
+    }
+
+    SolrOperation<Optional<CompactAccessionSet>> findAllAccessionsCompactOperation() {
+        final String url = PROJECT_URL_PATH + "/findAllAccessions";
+        return new SolrOperation<>(SolrRequest.get(url), response -> {
+            CompactAccessionSet.Builder builder = CompactAccessionSet.builder();
+            return streamStrings(response, builder::add) ? Optional.of(builder.build()) : Optional.empty();
+        });
+    }
+
+    SolrOperation<Optional<CompactIdSet>> findAllIdsCompactOperation() {
+        final String url = PROJECT_URL_PATH + "/findAllIds";
+        return new SolrOperation<>(SolrRequest.get(url), response -> {
+            CompactIdSet.Builder builder = CompactIdSet.builder();
+            return streamStrings(response, builder::add) ? Optional.of(builder.build()) : Optional.empty();
+        });
+    }
+
+    private Optional<PrideSolrProject> readOptionalProject(ClientHttpResponse response) throws IOException {
+        try (JsonParser parser = codec.mapper(response).getFactory().createParser(response.getBody())) {
+            return readOptionalProject(parser);
+        }
+    }
+
+    private Optional<PrideSolrProject> readOptionalProject(ObjectMapper mapper, byte[] body) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(body)) {
+            return readOptionalProject(parser);
+        }
+    }
+
+    /**
+     * @return the body as kept by the cache, re-encoded if the server answered in another format than the preferred one
+     */
+    private byte[] cacheBytes(ObjectMapper mapper, byte[] body, PrideSolrProject project) throws IOException {
+        return mapper == codec.preferredMapper() ? body : codec.preferredMapper().writeValueAsBytes(project);
+    }
+
+    /**
+     * @return empty if the API answered with an empty body or null
+     */
+    private Optional<PrideSolrProject> readOptionalProject(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return Optional.empty();
+        }
+        // the parser comes from the factory of the mapper that decodes it
+        return Optional.ofNullable(parser.readValueAs(PrideSolrProject.class));
+    }
+
+    /**
+     * Parses an array of strings (JSON or binary) straight from the response stream, without buffering the body
+     *
+     * @param response the API response
+     * @param sink     receives each string of the array
+     * @return false if the API answered with an empty body or null
+     * @throws JsonProcessingException if the body is not an array of strings
+     */
+    private boolean streamStrings(ClientHttpResponse response, Consumer<String> sink) throws IOException {
+        // the body is left open for the response to drain, so the connection goes back to the pool
+        try (JsonParser parser = codec.mapper(response).getFactory().createParser(StreamUtils.nonClosing(response.getBody()))) {
+            return JsonStringArrays.read(parser, sink);
+        }
+    }
+}
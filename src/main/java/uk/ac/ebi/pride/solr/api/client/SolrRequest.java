@@ -0,0 +1,134 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.util.MultiValueMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Description of one call to the Solr API, independent of the base URL, so that it can be
+ * (re)sent by {@link SolrApiRestClient} as many times as the retry policy allows.
+ */
+final class SolrRequest {
+
+    private final HttpMethod method;
+    private final String path;
+    private final HttpHeaders headers = new HttpHeaders();
+    private Map<String, String> uriParams;
+    private MultiValueMap<String, String> queryParams;
+    private StreamingHttpOutputMessage.Body body;
+    private Object entity;
+    private long bodySize = -1;
+    private boolean idempotent;
+
+    private SolrRequest(HttpMethod method, String path, boolean idempotent) {
+        this.method = method;
+        this.path = path;
+        this.idempotent = idempotent;
+    }
+
+    static SolrRequest get(String path) {
+        return new SolrRequest(HttpMethod.GET, path, true);
+    }
+
+    static SolrRequest delete(String path) {
+        return new SolrRequest(HttpMethod.DELETE, path, true);
+    }
+
+    /**
+     * POST requests are not retried on ambiguous failures unless marked {@link #idempotent(boolean)}
+     */
+    static SolrRequest post(String path, StreamingHttpOutputMessage.Body body) {
+        SolrRequest request = new SolrRequest(HttpMethod.POST, path, false);
+        request.body = body;
+        return request;
+    }
+
+    /**
+     * POST of an object that is serialized by {@link SolrApiRestClient} in the negotiated {@link WireFormat}
+     */
+    static SolrRequest postEntity(String path, Object entity) {
+        SolrRequest request = new SolrRequest(HttpMethod.POST, path, false);
+        request.entity = entity;
+        return request;
+    }
+
+    static SolrRequest post(String path, String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        SolrRequest request = post(path, out -> out.write(bytes)).bodySize(bytes.length);
+        request.headers.setContentLength(bytes.length);
+        return request;
+    }
+
+    /**
+     * Size of the body in bytes if known up front, -1 otherwise
+     */
+    SolrRequest bodySize(long bodySize) {
+        this.bodySize = bodySize;
+        return this;
+    }
+
+    SolrRequest uriParams(Map<String, String> uriParams) {
+        this.uriParams = uriParams;
+        return this;
+    }
+
+    SolrRequest queryParams(MultiValueMap<String, String> queryParams) {
+        this.queryParams = queryParams;
+        return this;
+    }
+
+    SolrRequest header(String name, String value) {
+        this.headers.set(name, value);
+        return this;
+    }
+
+    SolrRequest idempotent(boolean idempotent) {
+        this.idempotent = idempotent;
+        return this;
+    }
+
+    HttpMethod getMethod() {
+        return method;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    Map<String, String> getUriParams() {
+        return uriParams;
+    }
+
+    MultiValueMap<String, String> getQueryParams() {
+        return queryParams;
+    }
+
+    StreamingHttpOutputMessage.Body getBody() {
+        return body;
+    }
+
+    Object getEntity() {
+        return entity;
+    }
+
+    long getBodySize() {
+        return bodySize;
+    }
+
+    boolean isIdempotent() {
+        return idempotent;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,12 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+/**
+ * Outcome of {@link SolrApiClientFactory#warmUp(int)}
+ *
+ * @param nodes          number of API nodes probed
+ * @param probes         successful probe requests, each leaving an established connection in the pool
+ * @param failedProbes   probe requests that failed
+ * @param elapsedMillis  duration of the warm-up
+ */
+public record WarmUpReport(int nodes, int probes, int failedProbes, long elapsedMillis) {
+}
@@ -0,0 +1,97 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Picks the {@link ObjectMapper} for request bodies and responses.
+ * Responses are decoded according to their Content-Type, so a server that ignores the Accept header and answers
+ * JSON is still understood. Request bodies are sent in the preferred format until the server rejects one with
+ * 415 Unsupported Media Type, from then on they are sent as JSON.
+ */
+@Slf4j
+class WireCodec {
+
+    private final WireFormat preferred;
+    private final ObjectMapper preferredMapper;
+    private final ObjectMapper jsonMapper;
+    private final List<MediaType> accept;
+    private volatile boolean binaryRequests;
+
+    WireCodec(WireFormat preferred) {
+        this.preferred = preferred;
+        this.jsonMapper = WireFormat.JSON.createMapper();
+        this.preferredMapper = preferred == WireFormat.JSON ? jsonMapper : preferred.createMapper();
+        // JSON is still accepted, with a lower quality, so that the server can fall back to it
+        this.accept = preferred == WireFormat.JSON ? List.of(MediaType.ALL)
+                : List.of(preferred.getMediaType(), MediaType.parseMediaType("application/json;q=0.9"), MediaType.parseMediaType("*/*;q=0.1"));
+        this.binaryRequests = preferred != WireFormat.JSON;
+    }
+
+    WireFormat getPreferred() {
+        return preferred;
+    }
+
+    /**
+     * @return the format request bodies are currently sent in
+     */
+    WireFormat requestFormat() {
+        return binaryRequests ? preferred : WireFormat.JSON;
+    }
+
+    ObjectMapper mapper(WireFormat format) {
+        return format == WireFormat.JSON ? jsonMapper : preferredMapper;
+    }
+
+    /**
+     * @return the mapper matching the Content-Type of the response, JSON if it is missing or unknown
+     */
+    ObjectMapper mapper(ClientHttpResponse response) {
+        if (preferred == WireFormat.JSON) {
+            return jsonMapper;
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        return contentType != null && preferred.getMediaType().isCompatibleWith(contentType) ? preferredMapper : jsonMapper;
+    }
+
+    /**
+     * Mapper of the preferred format, used to keep raw project bytes (e.g. in the cache)
+     */
+    ObjectMapper preferredMapper() {
+        return preferredMapper;
+    }
+
+    List<MediaType> accept() {
+        return accept;
+    }
+
+    /**
+     * Builds and caches the (de)serializers of projects and string sets in every mapper, by a round trip of an
+     * empty project and set, so that the first real call does not pay for the bean introspection
+     */
+    void warmUp() throws IOException {
+        for (ObjectMapper mapper : jsonMapper == preferredMapper ? List.of(jsonMapper) : List.of(jsonMapper, preferredMapper)) {
+            mapper.readValue(mapper.writeValueAsBytes(new PrideSolrProject()), PrideSolrProject.class);
+            mapper.readValue(mapper.writeValueAsBytes(Set.of("PXD000001")), new TypeReference<Set<String>>() {
+            });
+        }
+    }
+
+    /**
+     * The server answered 415 to a binary body: send JSON from now on
+     */
+    void binaryRequestsRejected() {
+        if (binaryRequests) {
+            binaryRequests = false;
+            log.warn("The Solr API does not accept {} request bodies, falling back to JSON", preferred);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+
+/**
+ * Encoding of the documents exchanged with the Solr API. The binary formats are negotiated:
+ * if the server does not support them, the client falls back to JSON.
+ */
+public enum WireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    WireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return a new mapper for this format, configured as the ones the client reads and writes documents with
+     */
+    public ObjectMapper createMapper() {
+        JsonFactory factory = switch (this) {
+            case JSON -> new JsonFactory();
+            case SMILE -> new SmileFactory();
+            case CBOR -> new CBORFactory();
+        };
+        return Utils.getJacksonObjectMapper(factory);
+    }
+}
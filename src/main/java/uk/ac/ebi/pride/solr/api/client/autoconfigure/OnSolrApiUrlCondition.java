@@ -0,0 +1,28 @@
+package uk.ac.ebi.pride.solr.api.client.autoconfigure;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.List;
+
+/**
+ * Matches when {@code pride.solr.api.base-url} or {@code pride.solr.api.base-urls} is set
+ */
+class OnSolrApiUrlCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Binder binder = Binder.get(context.getEnvironment());
+        boolean baseUrl = binder.bind(SolrApiClientProperties.PREFIX + ".base-url", String.class)
+                .map(url -> !url.isBlank()).orElse(false);
+        boolean baseUrls = binder.bind(SolrApiClientProperties.PREFIX + ".base-urls", Bindable.listOf(String.class))
+                .map(urls -> !urls.isEmpty()).orElse(false);
+        return baseUrl || baseUrls
+                ? ConditionOutcome.match("Solr API base url is set")
+                : ConditionOutcome.noMatch("No " + SolrApiClientProperties.PREFIX + ".base-url(s)");
+    }
+}
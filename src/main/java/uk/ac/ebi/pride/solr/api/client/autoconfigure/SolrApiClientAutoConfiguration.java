@@ -0,0 +1,68 @@
+package uk.ac.ebi.pride.solr.api.client.autoconfigure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectAsyncClient;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.WarmUpReport;
+import uk.ac.ebi.pride.solr.api.client.metrics.SolrClientListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Creates the {@link SolrApiClientFactory} and its clients from {@code pride.solr.api.*} when a base url is set.
+ * The factory is closed with the application context, and optionally warmed up once all singletons are created.
+ */
+@Slf4j
+@AutoConfiguration
+@Conditional(OnSolrApiUrlCondition.class)
+@EnableConfigurationProperties(SolrApiClientProperties.class)
+public class SolrApiClientAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public SolrApiClientFactory solrApiClientFactory(SolrApiClientProperties properties,
+                                                     ObjectProvider<SolrClientListener> listener,
+                                                     ObjectProvider<SolrApiClientConfigCustomizer> customizers) {
+        SolrApiClientConfig.SolrApiClientConfigBuilder builder = properties.toConfigBuilder();
+        listener.ifAvailable(builder::listener);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return new SolrApiClientFactory(builder.build());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SolrProjectClient solrProjectClient(SolrApiClientFactory factory) {
+        return factory.getSolrProjectClient();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SolrProjectAsyncClient solrProjectAsyncClient(SolrApiClientFactory factory) {
+        return factory.getSolrProjectAsyncClient();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = SolrApiClientProperties.PREFIX, name = "warm-up.enabled", havingValue = "true")
+    public SmartInitializingSingleton solrApiClientWarmUp(SolrApiClientFactory factory, SolrApiClientProperties properties) {
+        return () -> {
+            try {
+                WarmUpReport report = factory.warmUp(properties.getWarmUp().getConnections());
+                log.info("Warmed up Solr API client: {} of {} probes to {} nodes succeeded in {} ms", report.probes(),
+                        report.probes() + report.failedProbes(), report.nodes(), report.elapsedMillis());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
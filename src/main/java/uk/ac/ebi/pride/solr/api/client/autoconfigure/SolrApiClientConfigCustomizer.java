@@ -0,0 +1,12 @@
+package uk.ac.ebi.pride.solr.api.client.autoconfigure;
+
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+
+/**
+ * Bean applied to the auto-configured {@link SolrApiClientConfig}, for the settings that have no property
+ */
+@FunctionalInterface
+public interface SolrApiClientConfigCustomizer {
+
+    void customize(SolrApiClientConfig.SolrApiClientConfigBuilder builder);
+}
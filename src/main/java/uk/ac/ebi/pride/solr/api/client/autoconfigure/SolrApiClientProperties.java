@@ -0,0 +1,104 @@
+package uk.ac.ebi.pride.solr.api.client.autoconfigure;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import uk.ac.ebi.pride.solr.api.client.HttpTransport;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.WireFormat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code pride.solr.api.*} properties, bound into a {@link SolrApiClientConfig}. Settings not exposed here (retry,
+ * routing, caching, ...) keep their defaults and can be changed with a {@link SolrApiClientConfigCustomizer}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = SolrApiClientProperties.PREFIX)
+public class SolrApiClientProperties {
+
+    public static final String PREFIX = "pride.solr.api";
+
+    private static final SolrApiClientConfig DEFAULTS = SolrApiClientConfig.builder().build();
+
+    /**
+     * API base url of Repo-WS
+     */
+    private String baseUrl;
+
+    /**
+     * Several API base urls, load balanced; takes precedence over {@link #baseUrl}
+     */
+    private List<String> baseUrls = new ArrayList<>();
+
+    private String keyName;
+
+    private String keyValue;
+
+    private String appName;
+
+    private HttpTransport transport = DEFAULTS.getTransport();
+
+    private Duration connectTimeout = DEFAULTS.getConnectTimeout();
+
+    private Duration readTimeout = DEFAULTS.getReadTimeout();
+
+    private Duration connectionRequestTimeout = DEFAULTS.getConnectionRequestTimeout();
+
+    private int maxConnections = DEFAULTS.getMaxConnections();
+
+    private int maxConnectionsPerRoute = DEFAULTS.getMaxConnectionsPerRoute();
+
+    private Duration idleConnectionEviction = DEFAULTS.getIdleConnectionEviction();
+
+    private Duration connectionTimeToLive = DEFAULTS.getConnectionTimeToLive();
+
+    private int asyncMaxConcurrency = DEFAULTS.getAsyncMaxConcurrency();
+
+    private WireFormat wireFormat = DEFAULTS.getWireFormat();
+
+    private boolean coalesceRequests;
+
+    private String partialUpdatePath = DEFAULTS.getPartialUpdatePath();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    @Getter
+    @Setter
+    public static class WarmUp {
+
+        /**
+         * Open connections and build the (de)serializers when the application context starts
+         */
+        private boolean enabled;
+
+        /**
+         * Connections opened to every API node
+         */
+        private int connections = 4;
+    }
+
+    public SolrApiClientConfig.SolrApiClientConfigBuilder toConfigBuilder() {
+        return SolrApiClientConfig.builder()
+                .apiBaseUrl(baseUrl)
+                .apiBaseUrls(baseUrls.isEmpty() ? null : List.copyOf(baseUrls))
+                .apiKeyName(keyName)
+                .apiKeyValue(keyValue)
+                .appName(appName)
+                .transport(transport)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .connectionRequestTimeout(connectionRequestTimeout)
+                .maxConnections(maxConnections)
+                .maxConnectionsPerRoute(maxConnectionsPerRoute)
+                .idleConnectionEviction(idleConnectionEviction)
+                .connectionTimeToLive(connectionTimeToLive)
+                .asyncMaxConcurrency(asyncMaxConcurrency)
+                .wireFormat(wireFormat)
+                .coalesceRequests(coalesceRequests)
+                .partialUpdatePath(partialUpdatePath);
+    }
+}
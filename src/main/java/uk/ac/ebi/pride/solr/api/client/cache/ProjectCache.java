@@ -0,0 +1,230 @@
+package uk.ac.ebi.pride.solr.api.client.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache of findByAccession answers, keyed by accession.
+ * Projects are kept as the raw body returned by the API (JSON or the binary wire format, which is also their weight), "not found" answers
+ * are kept for a shorter time. Writes made through the same client refresh or invalidate the affected entries.
+ * <p>
+ * A lookup takes a {@link #stamp()} before calling the API, and its result is only cached if neither its accession
+ * nor the id of the returned project was written in the meantime, so a slow read can never put back a project that
+ * has just been overwritten, while writes to other projects do not stop caching. Writes are tracked per hash stripe
+ * of the accession or id, so the bookkeeping stays bounded; two keys sharing a stripe only cost an extra miss.
+ */
+public class ProjectCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int WRITE_STRIPES = 1024;
+
+    private final Cache<String, Entry> cache;
+    private final ConcurrentHashMap<String, String> accessionById = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final boolean shareInstances;
+    private final boolean negativeCaching;
+    // write clock, and the clock value of the last write to each accession / id stripe and to the whole cache
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLongArray accessionWrites = new AtomicLongArray(WRITE_STRIPES);
+    private final AtomicLongArray idWrites = new AtomicLongArray(WRITE_STRIPES);
+    private final AtomicLong allWrites = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * A cached answer: the project if it was found, empty if the API answered null
+     */
+    public record Hit(Optional<PrideSolrProject> project) {
+    }
+
+    private record Entry(String id, byte[] json, PrideSolrProject instance) {
+
+        boolean isNegative() {
+            return json == null;
+        }
+
+        int weight() {
+            return ENTRY_OVERHEAD_BYTES + (json == null ? 0 : json.length);
+        }
+    }
+
+    public ProjectCache(ProjectCacheConfig config, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.shareInstances = config.isShareInstances();
+        this.negativeCaching = !config.getNegativeTimeToLive().isZero();
+        long ttl = config.getTimeToLive().toNanos();
+        long negativeTtl = config.getNegativeTimeToLive().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeightBytes())
+                .weigher((String accession, Entry entry) -> entry.weight())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String accession, Entry entry, long currentTime) {
+                        return entry.isNegative() ? negativeTtl : ttl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String accession, Entry entry, long currentTime, long currentDuration) {
+                        return entry.isNegative() ? negativeTtl : ttl;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String accession, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(Runnable::run)
+                .removalListener((String accession, Entry entry, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                    if (entry != null && entry.id() != null && cause != RemovalCause.REPLACED) {
+                        accessionById.remove(entry.id(), accession);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return the cached answer, or null on a miss
+     */
+    public Hit get(String accession) throws IOException {
+        Entry entry = cache.getIfPresent(accession);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (entry.isNegative()) {
+            negativeHits.increment();
+            return new Hit(Optional.empty());
+        }
+        PrideSolrProject project = entry.instance() != null ? entry.instance() : objectMapper.readValue(entry.json(), PrideSolrProject.class);
+        return new Hit(Optional.of(project));
+    }
+
+    /**
+     * @return the write stamp to pass to {@link #putFound} / {@link #putNotFound} once the API has answered
+     */
+    public long stamp() {
+        return clock.get();
+    }
+
+    /**
+     * Caches a project read from the API, unless its accession or id was written since {@code stamp}
+     */
+    public void putFound(long stamp, String accession, byte[] json, PrideSolrProject project) {
+        String id = project.getId() == null ? null : String.valueOf(project.getId());
+        // mapped before the check: a write by id either is seen by the check or finds the mapping and removes the entry
+        String previous = id == null ? null : accessionById.put(id, accession);
+        boolean[] stored = new boolean[1];
+        cache.asMap().compute(accession, (key, current) -> {
+            if (writtenSince(stamp, accession, id)) {
+                return current;
+            }
+            stored[0] = true;
+            return new Entry(id, json, shareInstances ? project : null);
+        });
+        if (!stored[0] && id != null && !accession.equals(previous)) {
+            accessionById.remove(id, accession);
+        }
+    }
+
+    /**
+     * Caches a "not found" answer, unless the accession was written since {@code stamp}
+     */
+    public void putNotFound(long stamp, String accession) {
+        if (!negativeCaching) {
+            return;
+        }
+        cache.asMap().compute(accession, (key, current) -> writtenSince(stamp, accession, null) ? current : new Entry(null, null, null));
+    }
+
+    /**
+     * Write-through: replaces whatever was cached for this project by the version echoed by the API
+     */
+    public void refresh(PrideSolrProject project, byte[] json) {
+        invalidate(project);
+        if (project.getAccession() != null) {
+            put(project.getAccession(), json, project);
+        }
+    }
+
+    /**
+     * Drops the entries of this project, by accession and by id (the accession of an id may have changed)
+     */
+    public void invalidate(PrideSolrProject project) {
+        if (project.getId() != null) {
+            invalidateById(String.valueOf(project.getId()));
+        }
+        if (project.getAccession() != null) {
+            written(accessionWrites, project.getAccession());
+            invalidateAccession(project.getAccession());
+        }
+    }
+
+    public void invalidateAll(Collection<PrideSolrProject> projects) {
+        projects.forEach(this::invalidate);
+    }
+
+    public void invalidateById(String id) {
+        written(idWrites, id);
+        invalidateAccession(accessionById.get(id));
+    }
+
+    public void invalidateAll() {
+        allWrites.set(clock.incrementAndGet());
+        invalidations.add(cache.estimatedSize());
+        cache.invalidateAll();
+        accessionById.clear();
+    }
+
+    public ProjectCacheStats stats() {
+        long weight = cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+        return new ProjectCacheStats(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(),
+                invalidations.sum(), cache.estimatedSize(), weight);
+    }
+
+    private void put(String accession, byte[] json, PrideSolrProject project) {
+        String id = project.getId() == null ? null : String.valueOf(project.getId());
+        cache.put(accession, new Entry(id, json, shareInstances ? project : null));
+        if (id != null) {
+            accessionById.put(id, accession);
+        }
+    }
+
+    private void written(AtomicLongArray writes, String key) {
+        writes.accumulateAndGet(stripe(key), clock.incrementAndGet(), Math::max);
+    }
+
+    private boolean writtenSince(long stamp, String accession, String id) {
+        return allWrites.get() > stamp || accessionWrites.get(stripe(accession)) > stamp
+                || id != null && idWrites.get(stripe(id)) > stamp;
+    }
+
+    private static int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (WRITE_STRIPES - 1);
+    }
+
+    private void invalidateAccession(String accession) {
+        if (accession != null && cache.asMap().remove(accession) != null) {
+            invalidations.increment();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package uk.ac.ebi.pride.solr.api.client.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Limits of the {@link ProjectCache} in front of findByAccession
+ */
+@Getter
+@Builder(toBuilder = true)
+public class ProjectCacheConfig {
+
+    /**
+     * Max total size of the cached projects, weighted by their JSON size in bytes
+     */
+    @Builder.Default
+    private final long maximumWeightBytes = 64L * 1024 * 1024;
+
+    /**
+     * How long a found project is served from the cache
+     */
+    @Builder.Default
+    private final Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * How long a "not found" answer is served from the cache; zero disables negative caching
+     */
+    @Builder.Default
+    private final Duration negativeTimeToLive = Duration.ofSeconds(30);
+
+    /**
+     * When true, hits return the same decoded instance to every caller (no deserialization at all),
+     * so callers must not modify it. When false, every hit decodes a private copy from the cached bytes.
+     */
+    @Builder.Default
+    private final boolean shareInstances = false;
+
+    public static ProjectCacheConfig defaults() {
+        return ProjectCacheConfig.builder().build();
+    }
+}
@@ -0,0 +1,21 @@
+package uk.ac.ebi.pride.solr.api.client.cache;
+
+/**
+ * Snapshot of the {@link ProjectCache} counters
+ *
+ * @param hitCount           lookups answered from the cache, including negative hits
+ * @param negativeHitCount   lookups answered with a cached "not found"
+ * @param missCount          lookups that went to the API
+ * @param evictionCount      entries removed because of the size limit or expiry
+ * @param invalidationCount  entries removed or replaced by writes of the same client
+ * @param entryCount         current number of entries
+ * @param weightBytes        current total weight of the entries
+ */
+public record ProjectCacheStats(long hitCount, long negativeHitCount, long missCount, long evictionCount,
+                                long invalidationCount, long entryCount, long weightBytes) {
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+}
@@ -0,0 +1,29 @@
+package uk.ac.ebi.pride.solr.api.client.export;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Settings of a full export of the projects, see {@link ProjectExportIterator}
+ */
+@Getter
+@Builder
+public class ExportOptions {
+
+    /**
+     * Max number of findByAccession calls in flight
+     */
+    @Builder.Default
+    private final int parallelism = 8;
+
+    /**
+     * Max number of projects fetched ahead of the consumer, in flight or decoded and waiting; bounds the memory
+     * used by the export whatever the size of the archive. At least {@link #parallelism}.
+     */
+    @Builder.Default
+    private final int prefetch = 32;
+
+    public static ExportOptions defaults() {
+        return ExportOptions.builder().build();
+    }
+}
@@ -0,0 +1,72 @@
+package uk.ac.ebi.pride.solr.api.client.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Writes projects as newline delimited JSON, one project per line. Projects are serialized by a single generator
+ * straight into its buffer and the stream, without building a String or byte array per project.
+ * Closing the writer closes the stream.
+ */
+public class NdjsonProjectWriter implements Closeable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+    private long count;
+
+    /**
+     * @param objectMapper JSON mapper defining how projects are serialized
+     */
+    public NdjsonProjectWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        // no separator between root values, each line is ended explicitly
+        this.generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        // flushed by the generator when its buffer is full, not after every project
+        this.writer = objectMapper.writerFor(PrideSolrProject.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void write(PrideSolrProject project) throws IOException {
+        writer.writeValue(generator, project);
+        generator.writeRaw('\n');
+        count++;
+    }
+
+    /**
+     * Writes the remaining projects of the iterator
+     *
+     * @return number of projects written
+     */
+    public long writeAll(Iterator<PrideSolrProject> projects) throws IOException {
+        long written = 0;
+        while (projects.hasNext()) {
+            write(projects.next());
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * @return number of projects written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
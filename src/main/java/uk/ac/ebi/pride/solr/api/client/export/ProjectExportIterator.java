@@ -0,0 +1,213 @@
+package uk.ac.ebi.pride.solr.api.client.export;
+
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the projects of a list of accessions, in the order of the accessions. Up to {@code prefetch}
+ * projects are fetched ahead of the consumer, {@code parallelism} of them at a time; a slow consumer therefore stops
+ * the fetching instead of piling up projects, and the memory used does not depend on the number of accessions.
+ * Accessions whose project is not found (e.g. deleted since they were listed) are skipped.
+ * Not thread safe; {@link #close()} cancels the projects still being fetched.
+ */
+public class ProjectExportIterator implements Iterator<PrideSolrProject>, AutoCloseable {
+
+    private final Iterator<String> accessions;
+    private final Function<String, CompletableFuture<Optional<PrideSolrProject>>> loader;
+    private final int parallelism;
+    private final int prefetch;
+    private final long totalElements;
+    // in the order of the accessions, started or waiting for a free fetch slot
+    private final ArrayDeque<Fetch> window = new ArrayDeque<>();
+    private final ArrayDeque<Fetch> waiting = new ArrayDeque<>();
+    private int running;
+    private PrideSolrProject next;
+    private long exported;
+    private long skipped;
+    private boolean closed;
+
+    private final class Fetch {
+        private final String accession;
+        private final CompletableFuture<Optional<PrideSolrProject>> result = new CompletableFuture<>();
+        private volatile CompletableFuture<Optional<PrideSolrProject>> call;
+
+        private Fetch(String accession) {
+            this.accession = accession;
+        }
+    }
+
+    /**
+     * @param accessions    accessions to export, iterated lazily
+     * @param totalElements number of accessions, -1 if not known
+     * @param loader        fetches the project of an accession, completing with empty if there is none
+     */
+    public ProjectExportIterator(Iterator<String> accessions, long totalElements,
+                                 Function<String, CompletableFuture<Optional<PrideSolrProject>>> loader, ExportOptions options) {
+        this.accessions = accessions;
+        this.totalElements = totalElements;
+        this.loader = loader;
+        this.parallelism = Math.max(1, options.getParallelism());
+        this.prefetch = Math.max(parallelism, options.getPrefetch());
+        fill();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (closed || window.isEmpty()) {
+                return false;
+            }
+            Optional<PrideSolrProject> project = await(window.poll().result);
+            fill();
+            if (project.isPresent()) {
+                next = project.get();
+            } else {
+                skipped++;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public PrideSolrProject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        PrideSolrProject project = next;
+        next = null;
+        exported++;
+        return project;
+    }
+
+    /**
+     * @return number of accessions to export, -1 if not known
+     */
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * @return number of projects returned so far
+     */
+    public long getExported() {
+        return exported;
+    }
+
+    /**
+     * @return number of accessions skipped so far because their project was not found
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public Spliterator<PrideSolrProject> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return a sequential stream over the remaining projects, closing it closes this iterator
+     */
+    public Stream<PrideSolrProject> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        next = null;
+        synchronized (waiting) {
+            waiting.clear();
+        }
+        for (Fetch fetch : window) {
+            CompletableFuture<Optional<PrideSolrProject>> call = fetch.call;
+            if (call != null) {
+                call.cancel(false);
+            }
+            fetch.result.cancel(false);
+        }
+        window.clear();
+    }
+
+    private void fill() {
+        while (!closed && window.size() < prefetch && accessions.hasNext()) {
+            Fetch fetch = new Fetch(accessions.next());
+            window.add(fetch);
+            synchronized (waiting) {
+                if (running == parallelism) {
+                    waiting.add(fetch);
+                    continue;
+                }
+                running++;
+            }
+            start(fetch);
+        }
+    }
+
+    private void start(Fetch fetch) {
+        CompletableFuture<Optional<PrideSolrProject>> call;
+        try {
+            call = loader.apply(fetch.accession);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        fetch.call = call;
+        call.whenComplete((project, error) -> {
+            if (error == null) {
+                fetch.result.complete(project);
+            } else {
+                fetch.result.completeExceptionally(error);
+            }
+            Fetch following;
+            synchronized (waiting) {
+                following = waiting.poll();
+                if (following == null) {
+                    running--;
+                }
+            }
+            if (following != null) {
+                start(following);
+            }
+        });
+    }
+
+    private Optional<PrideSolrProject> await(CompletableFuture<Optional<PrideSolrProject>> project) {
+        try {
+            return project.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for the next project");
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package uk.ac.ebi.pride.solr.api.client.export;
+
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cold publisher of an export: every subscriber gets its own {@link ProjectExportIterator}, created when it first
+ * requests projects.
+ * Projects are only taken from the iterator, and so only fetched beyond its bounded prefetch, as the subscriber
+ * requests them. Signals are delivered on the given executor, one at a time.
+ */
+public class ProjectExportPublisher implements Flow.Publisher<PrideSolrProject> {
+
+    private final Callable<ProjectExportIterator> exports;
+    private final Executor executor;
+
+    /**
+     * @param exports  starts an export, e.g. by listing the accessions
+     * @param executor runs the delivery loop, which blocks while the next project is fetched
+     */
+    public ProjectExportPublisher(Callable<ProjectExportIterator> exports, Executor executor) {
+        this.exports = exports;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super PrideSolrProject> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        ExportSubscription subscription = new ExportSubscription(subscriber);
+        // nothing is fetched, not even the accessions, until the subscriber requests projects
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class ExportSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super PrideSolrProject> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        // only used by the delivery loop
+        private ProjectExportIterator iterator;
+        private boolean done;
+
+        private ExportSubscription(Flow.Subscriber<? super PrideSolrProject> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " projects, must be positive");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    deliverRequested();
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliverRequested() {
+            try {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    finish();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                // a cancel or invalid request arriving meanwhile is handled by the next pass of deliver()
+                while (demand.get() > 0 && !cancelled && invalidRequest == null) {
+                    if (iterator == null) {
+                        iterator = exports.call();
+                    }
+                    if (!iterator.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    PrideSolrProject project = iterator.next();
+                    demand.decrementAndGet();
+                    subscriber.onNext(project);
+                }
+            } catch (Exception e) {
+                if (!done) {
+                    finish();
+                    if (!cancelled) {
+                        subscriber.onError(e);
+                    }
+                }
+            }
+        }
+
+        private void finish() {
+            done = true;
+            if (iterator != null) {
+                iterator.close();
+            }
+        }
+    }
+}
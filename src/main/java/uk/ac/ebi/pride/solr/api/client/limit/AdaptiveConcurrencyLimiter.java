@@ -0,0 +1,162 @@
+package uk.ac.ebi.pride.solr.api.client.limit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of in-flight calls to a limit found at runtime, the way TCP finds its window: it grows by one
+ * per successful call until the first sign of overload (slow start), then by one per limit's worth of calls; it is
+ * multiplied by {@code backoffRatio} on a dropped call (429/5xx/I/O failure) or a latency well above the long term
+ * average, at most once per average round trip. Callers over the limit wait in {@link #acquire()}.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_RTT_WEIGHT = 0.05;
+
+    private final ConcurrencyLimitConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int peakInFlight;
+    private int waiting;
+    private boolean slowStart = true;
+    private double longRttNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig config) {
+        this.config = config;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * @return true if calls to this path go through the limiter
+     */
+    public boolean appliesTo(String path) {
+        return config.getEndpoints().contains(path);
+    }
+
+    /**
+     * Waits until the call fits in the limit. Every acquire must be followed by one of {@link #onSuccess(long)},
+     * {@link #onDropped()} or {@link #onIgnored()}.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= getLimitLocked()) {
+                    available.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            peakInFlight = Math.max(peakInFlight, inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The call completed; its latency drives the limit
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            release();
+            longRttNanos = longRttNanos == 0 ? latencyNanos : longRttNanos * (1 - LONG_RTT_WEIGHT) + latencyNanos * LONG_RTT_WEIGHT;
+            if (latencyNanos > longRttNanos * config.getLatencyTolerance()) {
+                decrease("latency " + latencyNanos / 1_000_000 + " ms");
+            } else if (peakInFlight * 2 >= getLimitLocked()) {
+                // only grow while the limit is actually used, it would mean nothing otherwise
+                limit = Math.min(config.getMaxLimit(), limit + (slowStart ? 1 : 1 / limit));
+                available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The call was rejected or timed out because the server is overloaded
+     */
+    public void onDropped() {
+        lock.lock();
+        try {
+            release();
+            decrease("dropped call");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The call failed for a reason unrelated to load (e.g. a 4xx), the limit is left as it is
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return getLimitLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of calls waiting for the in-flight count to drop below the limit
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int getLimitLocked() {
+        return (int) limit;
+    }
+
+    private void release() {
+        inFlight--;
+        available.signal();
+    }
+
+    private void decrease(String reason) {
+        long now = System.nanoTime();
+        // one decrease per round trip, the calls already in flight were sent under the same conditions
+        if (!slowStart && now - lastDecreaseNanos < longRttNanos) {
+            return;
+        }
+        slowStart = false;
+        lastDecreaseNanos = now;
+        double previous = limit;
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+        peakInFlight = inFlight;
+        log.debug("Write concurrency limit {} -> {} ({})", (int) previous, (int) limit, reason);
+    }
+}
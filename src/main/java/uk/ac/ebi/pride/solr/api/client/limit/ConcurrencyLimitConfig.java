@@ -0,0 +1,47 @@
+package uk.ac.ebi.pride.solr.api.client.limit;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Settings of the {@link AdaptiveConcurrencyLimiter} in front of the write endpoints
+ */
+@Getter
+@Builder(toBuilder = true)
+public class ConcurrencyLimitConfig {
+
+    @Builder.Default
+    private final int initialLimit = 8;
+
+    @Builder.Default
+    private final int minLimit = 1;
+
+    @Builder.Default
+    private final int maxLimit = 256;
+
+    /**
+     * Factor applied to the limit on overload: a 429/5xx answer, an I/O failure, or a latency above
+     * {@code latencyTolerance} times the long term average
+     */
+    @Builder.Default
+    private final double backoffRatio = 0.9;
+
+    /**
+     * How much slower than usual a write may be before it is taken as a sign of queueing on the server
+     */
+    @Builder.Default
+    private final double latencyTolerance = 2.0;
+
+    /**
+     * Paths whose calls go through the limiter
+     */
+    @Builder.Default
+    private final Set<String> endpoints = Set.of("/project/saveAll", "/project/save", "/project/update",
+            "/project/upsert", "/project/partialUpdate", "/project/deleteProjectById");
+
+    public static ConcurrencyLimitConfig defaults() {
+        return ConcurrencyLimitConfig.builder().build();
+    }
+}
@@ -0,0 +1,80 @@
+package uk.ac.ebi.pride.solr.api.client.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the client metrics to a Micrometer registry, tagged by endpoint:
+ * <ul>
+ *     <li>{@code pride.solr.client.requests}: latency histogram of each attempt, also tagged by method and outcome</li>
+ *     <li>{@code pride.solr.client.serialization} / {@code pride.solr.client.deserialization}: time spent in Jackson</li>
+ *     <li>{@code pride.solr.client.request.size} / {@code pride.solr.client.response.size}: body sizes in bytes</li>
+ *     <li>{@code pride.solr.client.retries} / {@code pride.solr.client.failures}: retried attempts and failed calls</li>
+ *     <li>{@code pride.solr.client.in.flight}: attempts currently in progress</li>
+ * </ul>
+ */
+public class MicrometerSolrClientListener implements SolrClientListener {
+
+    private static final String PREFIX = "pride.solr.client.";
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public MicrometerSolrClientListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onAttemptStart(String endpoint) {
+        inFlight(endpoint).incrementAndGet();
+    }
+
+    @Override
+    public void onAttemptEnd(RequestMetrics metrics) {
+        String endpoint = metrics.endpoint();
+        inFlight(endpoint).decrementAndGet();
+        Timer.builder(PREFIX + "requests")
+                .tag("endpoint", endpoint)
+                .tag("method", metrics.method())
+                .tag("outcome", metrics.isSuccess() ? "success" : "error")
+                .tag("status", String.valueOf(metrics.status()))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(metrics.totalNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder(PREFIX + "serialization").tag("endpoint", endpoint).register(registry)
+                .record(metrics.serializationNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder(PREFIX + "deserialization").tag("endpoint", endpoint).register(registry)
+                .record(metrics.deserializationNanos(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(PREFIX + "request.size").baseUnit("bytes").tag("endpoint", endpoint).register(registry)
+                .record(metrics.requestBytes());
+        DistributionSummary.builder(PREFIX + "response.size").baseUnit("bytes").tag("endpoint", endpoint).register(registry)
+                .record(metrics.responseBytes());
+    }
+
+    @Override
+    public void onRetry(String endpoint, int attempt, Throwable error) {
+        Counter.builder(PREFIX + "retries").tag("endpoint", endpoint).tag("exception", error.getClass().getSimpleName())
+                .register(registry).increment();
+    }
+
+    @Override
+    public void onFailure(String endpoint, Throwable error) {
+        Counter.builder(PREFIX + "failures").tag("endpoint", endpoint).tag("exception", error.getClass().getSimpleName())
+                .register(registry).increment();
+    }
+
+    private AtomicInteger inFlight(String endpoint) {
+        return inFlight.computeIfAbsent(endpoint, key -> {
+            AtomicInteger gauge = new AtomicInteger();
+            Gauge.builder(PREFIX + "in.flight", gauge, AtomicInteger::get).tag("endpoint", key).register(registry);
+            return gauge;
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package uk.ac.ebi.pride.solr.api.client.metrics;
+
+/**
+ * Measurements of one attempt of an API call. Network time includes waiting for the server and for a pooled
+ * connection; (de)serialization time is the time spent in Jackson, excluding the reads/writes of the connection.
+ *
+ * @param endpoint             path of the endpoint, e.g. {@code /project/saveAll}
+ * @param method               HTTP method
+ * @param status               HTTP status, -1 if no response was received
+ * @param requestBytes         body bytes written to the connection (compressed if the body was gzipped)
+ * @param responseBytes        body bytes read from the connection
+ * @param serializationNanos   time spent producing (and compressing) the request body
+ * @param networkNanos         total time minus (de)serialization
+ * @param deserializationNanos time spent decoding the response body
+ * @param error                the failure of the attempt, null on success
+ */
+public record RequestMetrics(String endpoint, String method, int status, long requestBytes, long responseBytes,
+                             long serializationNanos, long networkNanos, long deserializationNanos, Throwable error) {
+
+    public long totalNanos() {
+        return serializationNanos + networkNanos + deserializationNanos;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
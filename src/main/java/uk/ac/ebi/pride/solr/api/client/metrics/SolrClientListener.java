@@ -0,0 +1,41 @@
+package uk.ac.ebi.pride.solr.api.client.metrics;
+
+/**
+ * Instrumentation callbacks of the Solr API client, all called on the thread running the request.
+ * Implementations must be thread safe and cheap; every method is a no-op by default.
+ *
+ * @see MicrometerSolrClientListener
+ */
+public interface SolrClientListener {
+
+    SolrClientListener NOOP = new SolrClientListener() {
+    };
+
+    /**
+     * An attempt is about to be sent
+     *
+     * @param endpoint path of the endpoint, e.g. {@code /project/findByAccession}
+     */
+    default void onAttemptStart(String endpoint) {
+    }
+
+    /**
+     * An attempt has completed, successfully or not
+     */
+    default void onAttemptEnd(RequestMetrics metrics) {
+    }
+
+    /**
+     * A failed attempt is going to be retried
+     *
+     * @param attempt number of the attempt that failed, starting at 1
+     */
+    default void onRetry(String endpoint, int attempt, Throwable error) {
+    }
+
+    /**
+     * The call failed for good: retries exhausted or not allowed, or circuit open
+     */
+    default void onFailure(String endpoint, Throwable error) {
+    }
+}
@@ -0,0 +1,330 @@
+package uk.ac.ebi.pride.solr.api.client.patch;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field level update of one project, sent as a Solr atomic update document: the project id (and accession) plus,
+ * for every changed field, {@code {"set": value}}, {@code {"add-distinct": [values]}} and/or {@code {"remove": [values]}}.
+ * All operations can be applied twice with the same result, so a patch is safe to retry.
+ */
+public final class ProjectPatch {
+
+    public static final String SET = "set";
+    public static final String ADD = "add-distinct";
+    public static final String REMOVE = "remove";
+
+    private static final ObjectMapper OBJECT_MAPPER = Utils.getJacksonObjectMapper();
+    // unordered multi-valued fields, diffed value by value
+    private static final Set<String> SET_FIELDS = setFields();
+
+    private final String id;
+    private final String accession;
+    private final Map<String, Map<String, Object>> operations;
+
+    private ProjectPatch(Builder builder) {
+        this.id = builder.id;
+        this.accession = builder.accession;
+        Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+        builder.operations.forEach((field, ops) -> {
+            Map<String, Object> opsCopy = new LinkedHashMap<>();
+            ops.forEach((operation, value) -> opsCopy.put(operation,
+                    value instanceof List<?> values ? Collections.unmodifiableList(new ArrayList<>(values)) : value));
+            copy.put(field, Collections.unmodifiableMap(opsCopy));
+        });
+        this.operations = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * @param id id of the project to update, the unique key of the Solr document
+     */
+    public static Builder builder(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("A partial update needs the id of the project");
+        }
+        return new Builder(id, null);
+    }
+
+    /**
+     * Patch of the given project, identified by its id and accession
+     */
+    public static Builder builder(PrideSolrProject project) {
+        if (project.getId() == null) {
+            throw new IllegalArgumentException("A partial update needs the id of the project " + project.getAccession());
+        }
+        return new Builder(String.valueOf(project.getId()), project.getAccession());
+    }
+
+    /**
+     * Computes the operations turning {@code before} into {@code after}: values added to or removed from Set fields
+     * become add/remove operations, values appended to other arrays of plain values an add, any other change
+     * (including a reorder or removal in an ordered array) a set of the whole value
+     */
+    public static ProjectPatch diff(PrideSolrProject before, PrideSolrProject after) {
+        Builder builder = builder(after);
+        ObjectNode oldTree = OBJECT_MAPPER.valueToTree(before);
+        ObjectNode newTree = OBJECT_MAPPER.valueToTree(after);
+        Set<String> fields = new LinkedHashSet<>();
+        oldTree.fieldNames().forEachRemaining(fields::add);
+        newTree.fieldNames().forEachRemaining(fields::add);
+        fields.remove("id");
+        fields.remove("accession");
+        for (String field : fields) {
+            JsonNode oldValue = nullToMissing(oldTree.get(field));
+            JsonNode newValue = nullToMissing(newTree.get(field));
+            if (oldValue.equals(newValue)) {
+                continue;
+            }
+            if (newValue.isMissingNode()) {
+                builder.set(field, null);
+            } else if (isValueArray(oldValue) && isValueArray(newValue) && !SET_FIELDS.contains(field)) {
+                List<JsonNode> appended = appended(oldValue, newValue);
+                if (appended == null) {
+                    builder.set(field, newValue);
+                } else {
+                    builder.add(field, appended);
+                }
+            } else if (isValueArray(oldValue) && isValueArray(newValue)) {
+                List<JsonNode> added = difference(newValue, oldValue);
+                List<JsonNode> removed = difference(oldValue, newValue);
+                if (!added.isEmpty()) {
+                    builder.add(field, added);
+                }
+                if (!removed.isEmpty()) {
+                    builder.remove(field, removed);
+                }
+            } else {
+                builder.set(field, newValue);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Applies the operations to a copy of the project the way the API does, e.g. to send the patch as a full update
+     */
+    public PrideSolrProject applyTo(PrideSolrProject project) {
+        ObjectNode tree = OBJECT_MAPPER.valueToTree(project);
+        operations.forEach((field, ops) -> {
+            if (ops.containsKey(SET)) {
+                tree.set(field, OBJECT_MAPPER.valueToTree(ops.get(SET)));
+            }
+            if (!ops.containsKey(ADD) && !ops.containsKey(REMOVE)) {
+                return;
+            }
+            ArrayNode values = tree.path(field).isArray() ? (ArrayNode) tree.get(field) : tree.arrayNode();
+            for (Object added : (List<?>) ops.getOrDefault(ADD, List.of())) {
+                JsonNode value = OBJECT_MAPPER.valueToTree(added);
+                if (!contains(values, value)) {
+                    values.add(value);
+                }
+            }
+            for (Object removed : (List<?>) ops.getOrDefault(REMOVE, List.of())) {
+                JsonNode value = OBJECT_MAPPER.valueToTree(removed);
+                for (int i = values.size() - 1; i >= 0; i--) {
+                    if (values.get(i).equals(value)) {
+                        values.remove(i);
+                    }
+                }
+            }
+            tree.set(field, values);
+        });
+        try {
+            return OBJECT_MAPPER.treeToValue(tree, PrideSolrProject.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Patch of project " + id + " does not fit a project: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getAccession() {
+        return accession;
+    }
+
+    /**
+     * @return the operations, by field name and then by operation name
+     */
+    public Map<String, Map<String, Object>> getOperations() {
+        return operations;
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * @return the atomic update document, as sent to the API
+     */
+    @JsonValue
+    public Map<String, Object> toDocument() {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("id", id);
+        if (accession != null) {
+            document.put("accession", accession);
+        }
+        document.putAll(operations);
+        return document;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectPatch" + toDocument();
+    }
+
+    private static JsonNode nullToMissing(JsonNode node) {
+        return node == null || node.isNull() ? OBJECT_MAPPER.missingNode() : node;
+    }
+
+    private static boolean isValueArray(JsonNode node) {
+        if (node.isMissingNode()) {
+            return true;
+        }
+        if (!node.isArray()) {
+            return false;
+        }
+        for (JsonNode element : node) {
+            if (element.isContainerNode()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(ArrayNode values, JsonNode value) {
+        for (JsonNode element : values) {
+            if (element.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the values appended to {@code before}, null unless that is the only change and add-distinct applies
+     * them as they are (no value already there or appended twice)
+     */
+    private static List<JsonNode> appended(JsonNode before, JsonNode after) {
+        if (after.size() <= before.size()) {
+            return null;
+        }
+        Set<JsonNode> seen = new LinkedHashSet<>();
+        for (int i = 0; i < before.size(); i++) {
+            if (!before.get(i).equals(after.get(i))) {
+                return null;
+            }
+            seen.add(before.get(i));
+        }
+        List<JsonNode> appended = new ArrayList<>();
+        for (int i = before.size(); i < after.size(); i++) {
+            if (!seen.add(after.get(i))) {
+                return null;
+            }
+            appended.add(after.get(i));
+        }
+        return appended;
+    }
+
+    private static Set<String> setFields() {
+        BeanDescription description = OBJECT_MAPPER.getSerializationConfig().introspect(OBJECT_MAPPER.constructType(PrideSolrProject.class));
+        Set<String> fields = new HashSet<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (Set.class.isAssignableFrom(property.getRawPrimaryType())) {
+                fields.add(property.getName());
+            }
+        }
+        return fields;
+    }
+
+    private static List<JsonNode> difference(JsonNode values, JsonNode minus) {
+        Set<JsonNode> excluded = new LinkedHashSet<>();
+        minus.forEach(excluded::add);
+        List<JsonNode> result = new ArrayList<>();
+        for (Iterator<JsonNode> it = values.elements(); it.hasNext(); ) {
+            JsonNode value = it.next();
+            if (!excluded.contains(value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    public static final class Builder {
+
+        private final String id;
+        private final String accession;
+        private final Map<String, Map<String, Object>> operations = new LinkedHashMap<>();
+
+        private Builder(String id, String accession) {
+            this.id = id;
+            this.accession = accession;
+        }
+
+        /**
+         * Replaces the value of the field, null clears it. Drops any add or remove already given for the field.
+         */
+        public Builder set(String field, Object value) {
+            Map<String, Object> ops = new LinkedHashMap<>();
+            ops.put(SET, value);
+            operations.put(field, ops);
+            return this;
+        }
+
+        /**
+         * Adds the values to a multi-valued field, unless already there
+         */
+        public Builder add(String field, Object... values) {
+            return add(field, List.of(values));
+        }
+
+        public Builder add(String field, Collection<?> values) {
+            return append(field, ADD, values);
+        }
+
+        /**
+         * Removes the values from a multi-valued field
+         */
+        public Builder remove(String field, Object... values) {
+            return remove(field, List.of(values));
+        }
+
+        public Builder remove(String field, Collection<?> values) {
+            return append(field, REMOVE, values);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Builder append(String field, String operation, Collection<?> values) {
+            Map<String, Object> ops = operations.computeIfAbsent(field, f -> new LinkedHashMap<>());
+            if (ops.containsKey(SET)) {
+                throw new IllegalStateException("Field " + field + " is already set by this patch");
+            }
+            ((List<Object>) ops.computeIfAbsent(operation, o -> new ArrayList<>())).addAll(values);
+            return this;
+        }
+
+        public ProjectPatch build() {
+            return new ProjectPatch(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package uk.ac.ebi.pride.solr.api.client.projection;
+
+import java.util.Set;
+
+/**
+ * Names of the {@code PrideSolrProject} fields as serialized by the API, for field lists of projected lookups
+ */
+public final class ProjectFields {
+
+    public static final String ID = "id";
+    public static final String ACCESSION = "accession";
+    public static final String TITLE = "title";
+    public static final String KEYWORDS = "keywords";
+    public static final String PROJECT_TAGS = "projectTags";
+    public static final String SUBMISSION_DATE = "submissionDate";
+    public static final String PUBLICATION_DATE = "publicationDate";
+    public static final String UPDATED_DATE = "updatedDate";
+    public static final String PROJECT_FILE_NAMES = "projectFileNames";
+    public static final String PEPTIDE_SEQUENCES = "peptideSequences";
+    public static final String PROTEIN_IDENTIFICATIONS = "proteinIdentifications";
+
+    /**
+     * Multi-valued fields that can hold many thousands of values for a large project
+     */
+    public static final Set<String> HEAVY = Set.of(PROJECT_FILE_NAMES, PEPTIDE_SEQUENCES, PROTEIN_IDENTIFICATIONS);
+
+    /**
+     * Always part of a projection, so that the view can be written back or looked up again
+     */
+    static final Set<String> KEYS = Set.of(ID, ACCESSION);
+
+    private ProjectFields() {
+    }
+}
@@ -0,0 +1,186 @@
+package uk.ac.ebi.pride.solr.api.client.projection;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lightweight read-only view of a project. Each field is kept as the buffered tokens of its value and only decoded,
+ * once, when it is first asked for, so the large multi-valued fields cost nothing until they are used.
+ * A view read with a field list only holds those fields (plus id and accession); the others were skipped while parsing.
+ */
+public class ProjectView {
+
+    private static final TypeReference<Set<String>> STRING_SET = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Field> fields;
+
+    private ProjectView(ObjectMapper objectMapper, Map<String, Field> fields) {
+        this.objectMapper = objectMapper;
+        this.fields = fields;
+    }
+
+    /**
+     * Reads a project from the parser, positioned before its first token
+     *
+     * @param fieldNames fields to keep, all of them if null
+     * @return null if the API answered with an empty body or null
+     */
+    public static ProjectView read(JsonParser parser, ObjectMapper objectMapper, Set<String> fieldNames) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a project object but got " + token);
+        }
+        Map<String, Field> fields = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL
+                    || fieldNames != null && !fieldNames.contains(name) && !ProjectFields.KEYS.contains(name)) {
+                parser.skipChildren();
+                continue;
+            }
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.copyCurrentStructure(parser);
+            fields.put(name, new Field(buffer));
+        }
+        return new ProjectView(objectMapper, Collections.unmodifiableMap(fields));
+    }
+
+    public String getId() {
+        return getString(ProjectFields.ID);
+    }
+
+    public String getAccession() {
+        return getString(ProjectFields.ACCESSION);
+    }
+
+    public String getTitle() {
+        return getString(ProjectFields.TITLE);
+    }
+
+    public Set<String> getKeywords() {
+        return getStringSet(ProjectFields.KEYWORDS);
+    }
+
+    public Set<String> getProjectFileNames() {
+        return getStringSet(ProjectFields.PROJECT_FILE_NAMES);
+    }
+
+    public Set<String> getPeptideSequences() {
+        return getStringSet(ProjectFields.PEPTIDE_SEQUENCES);
+    }
+
+    public Set<String> getProteinIdentifications() {
+        return getStringSet(ProjectFields.PROTEIN_IDENTIFICATIONS);
+    }
+
+    /**
+     * @return names of the non-null fields held by this view
+     */
+    public Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+
+    public boolean has(String field) {
+        return fields.containsKey(field);
+    }
+
+    /**
+     * @return true if the field was already decoded by a previous access
+     */
+    public boolean isDecoded(String field) {
+        Field value = fields.get(field);
+        return value != null && value.decoded != null;
+    }
+
+    public String getString(String field) {
+        return get(field, String.class);
+    }
+
+    public Set<String> getStringSet(String field) {
+        return get(field, STRING_SET);
+    }
+
+    /**
+     * @return the decoded field, or null if it is null or not part of the view
+     */
+    public <T> T get(String field, Class<T> type) {
+        return decode(field, objectMapper.constructType(type));
+    }
+
+    public <T> T get(String field, TypeReference<T> type) {
+        return decode(field, objectMapper.constructType(type));
+    }
+
+    /**
+     * Decodes the fields held by the view into a project; fields left out of the projection stay unset
+     */
+    public PrideSolrProject toProject() {
+        TokenBuffer document = new TokenBuffer(objectMapper, false);
+        try {
+            document.writeStartObject();
+            for (Map.Entry<String, Field> field : fields.entrySet()) {
+                document.writeFieldName(field.getKey());
+                try (JsonParser parser = field.getValue().tokens.asParser(objectMapper)) {
+                    parser.nextToken();
+                    document.copyCurrentStructure(parser);
+                }
+            }
+            document.writeEndObject();
+            try (JsonParser parser = document.asParser(objectMapper)) {
+                return objectMapper.readValue(parser, PrideSolrProject.class);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decode(String field, JavaType type) {
+        Field value = fields.get(field);
+        if (value == null) {
+            return null;
+        }
+        Decoded decoded = value.decoded;
+        if (decoded == null || !decoded.type.equals(type)) {
+            try (JsonParser parser = value.tokens.asParser(objectMapper)) {
+                decoded = new Decoded(type, objectMapper.readValue(parser, type));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            value.decoded = decoded;
+        }
+        return (T) decoded.value;
+    }
+
+    private static final class Field {
+
+        private final TokenBuffer tokens;
+        private volatile Decoded decoded;
+
+        Field(TokenBuffer tokens) {
+            this.tokens = tokens;
+        }
+    }
+
+    private record Decoded(JavaType type, Object value) {
+    }
+}
@@ -0,0 +1,13 @@
+package uk.ac.ebi.pride.solr.api.client.retry;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown without calling the API while the circuit breaker is open
+ */
+public class CircuitBreakerOpenException extends RestClientException {
+
+    public CircuitBreakerOpenException(String endpoint) {
+        super("Solr API circuit breaker is open, not calling " + endpoint);
+    }
+}
@@ -0,0 +1,212 @@
+package uk.ac.ebi.pride.solr.api.client.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import uk.ac.ebi.pride.solr.api.client.metrics.SolrClientListener;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs API calls with the {@link RetryPolicy}: retries are iterative (no recursion), bounded by a
+ * {@link RetryBudget}, gated by a {@link CircuitBreaker}, and only happen when the request is safe to repeat.
+ * <p>
+ * Non idempotent requests (e.g. saveAll) are only retried when the server provably did not process them:
+ * the connection could not be established, or the server answered 429.
+ */
+@Slf4j
+public class RetryExecutor {
+
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+    private final CircuitBreaker circuitBreaker;
+    private final SolrClientListener listener;
+
+    public RetryExecutor(RetryPolicy policy) {
+        this(policy, SolrClientListener.NOOP);
+    }
+
+    /**
+     * @param listener notified of every retry and of every call failing for good
+     */
+    public RetryExecutor(RetryPolicy policy, SolrClientListener listener) {
+        this.policy = policy;
+        this.listener = listener;
+        this.budget = new RetryBudget(policy.getRetryBudgetRatio(), policy.getMinRetriesPerSecond());
+        this.circuitBreaker = new CircuitBreaker(policy.getCircuitBreakerFailureThreshold(), policy.getCircuitBreakerOpenDuration());
+    }
+
+    /**
+     * One attempt of an API call. Failures are reported as unchecked exceptions (RestClientException etc.)
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T run();
+    }
+
+    /**
+     * Runs the call on the current thread, sleeping between attempts
+     *
+     * @param endpoint   name of the endpoint, for logging
+     * @param attempt    the call
+     * @param idempotent whether the call may be repeated safely (GET, DELETE, ...)
+     */
+    public <T> T execute(String endpoint, Attempt<T> attempt, boolean idempotent) throws InterruptedException {
+        budget.onRequest();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            if (!circuitBreaker.allowRequest()) {
+                CircuitBreakerOpenException open = new CircuitBreakerOpenException(endpoint);
+                listener.onFailure(endpoint, open);
+                throw open;
+            }
+            try {
+                T result = attempt.run();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                recordOutcome(e);
+                long delay = nextDelay(endpoint, e, attemptNumber, idempotent);
+                if (delay < 0) {
+                    throw e;
+                }
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Runs the call asynchronously. Backoff delays are scheduled on a timer, no thread waits for them.
+     *
+     * @param endpoint   name of the endpoint, for logging
+     * @param attempt    starts one attempt of the call
+     * @param idempotent whether the call may be repeated safely (GET, DELETE, ...)
+     * @param executor   where the next attempt is started once the delay has elapsed
+     */
+    public <T> CompletableFuture<T> executeAsync(String endpoint, Supplier<CompletableFuture<T>> attempt,
+                                                 boolean idempotent, Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        budget.onRequest();
+        attemptAsync(endpoint, attempt, idempotent, executor, 1, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(String endpoint, Supplier<CompletableFuture<T>> attempt, boolean idempotent,
+                                  Executor executor, int attemptNumber, CompletableFuture<T> result) {
+        if (!circuitBreaker.allowRequest()) {
+            CircuitBreakerOpenException open = new CircuitBreakerOpenException(endpoint);
+            listener.onFailure(endpoint, open);
+            result.completeExceptionally(open);
+            return;
+        }
+        attempt.get().whenComplete((value, error) -> {
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            recordOutcome(cause);
+            long delay = nextDelay(endpoint, cause, attemptNumber, idempotent);
+            if (delay < 0) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor);
+            delayed.execute(() -> attemptAsync(endpoint, attempt, idempotent, executor, attemptNumber + 1, result));
+        });
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return delay before the next attempt, or -1 if the failure must be propagated
+     */
+    private long nextDelay(String endpoint, Throwable error, int attemptNumber, boolean idempotent) {
+        if (attemptNumber >= policy.getMaxAttempts() || !isRetryable(error, idempotent)) {
+            listener.onFailure(endpoint, error);
+            return -1;
+        }
+        if (!budget.tryAcquireRetry()) {
+            log.warn("Retry budget exhausted, not retrying {}", endpoint);
+            listener.onFailure(endpoint, error);
+            return -1;
+        }
+        long delay = Math.max(policy.backoffMillis(attemptNumber), retryAfterMillis(error));
+        log.warn("Attempt {} of {} failed ({}), retrying in {} ms", attemptNumber, endpoint, error.getMessage(), delay);
+        listener.onRetry(endpoint, attemptNumber, error);
+        return delay;
+    }
+
+    boolean isRetryable(Throwable error, boolean idempotent) {
+        if (error instanceof HttpStatusCodeException statusError) {
+            int status = statusError.getStatusCode().value();
+            if (!policy.getRetryableStatusCodes().contains(status)) {
+                return false;
+            }
+            return idempotent || status == 429;
+        }
+        if (error instanceof ResourceAccessException) {
+            if (error.getCause() instanceof JsonProcessingException) {
+                return false;
+            }
+            return idempotent || error.getCause() instanceof ConnectException;
+        }
+        // unexpected (non error) status code
+        return error instanceof IllegalStateException && idempotent;
+    }
+
+    /**
+     * Server errors and I/O failures count towards opening the circuit, anything else (4xx, parsing) shows the server is up
+     */
+    private void recordOutcome(Throwable error) {
+        if (isServerDown(error)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    /**
+     * @return true for server errors and I/O failures, as opposed to errors showing the server is up (4xx, parsing)
+     */
+    public static boolean isServerDown(Throwable error) {
+        return error instanceof HttpServerErrorException
+                || (error instanceof ResourceAccessException && !(error.getCause() instanceof JsonProcessingException));
+    }
+
+    private long retryAfterMillis(Throwable error) {
+        if (error instanceof HttpStatusCodeException statusError && statusError.getResponseHeaders() != null) {
+            String retryAfter = statusError.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null) {
+                try {
+                    return Math.min(policy.getMaxBackoff().toMillis(), Long.parseLong(retryAfter.trim()) * 1000);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
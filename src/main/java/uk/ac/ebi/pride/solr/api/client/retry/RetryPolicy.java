@@ -0,0 +1,88 @@
+package uk.ac.ebi.pride.solr.api.client.retry;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Settings of the {@link RetryExecutor}: exponential backoff with jitter, which status codes are retried,
+ * the retry budget and the circuit breaker.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    /**
+     * Total number of attempts, including the first one
+     */
+    @Builder.Default
+    private final int maxAttempts = 4;
+
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(200);
+
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(10);
+
+    @Builder.Default
+    private final double backoffMultiplier = 2.0;
+
+    /**
+     * HTTP status codes worth another attempt. 429 is also retried for non idempotent requests,
+     * because the server has rejected the request without processing it.
+     */
+    @Builder.Default
+    private final Set<Integer> retryableStatusCodes = Set.of(408, 429, 502, 503, 504);
+
+    /**
+     * Retries allowed per original request, e.g. 0.2 means at most one retry every five requests in a steady state
+     */
+    @Builder.Default
+    private final double retryBudgetRatio = 0.2;
+
+    /**
+     * Retries always allowed per second, so that low traffic clients can still retry
+     */
+    @Builder.Default
+    private final double minRetriesPerSecond = 5;
+
+    /**
+     * Consecutive server/connection failures after which the circuit opens; 0 disables the circuit breaker
+     */
+    @Builder.Default
+    private final int circuitBreakerFailureThreshold = 20;
+
+    /**
+     * How long the circuit stays open before a single probe request is let through
+     */
+    @Builder.Default
+    private final Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+
+    public static RetryPolicy defaults() {
+        return RetryPolicy.builder().build();
+    }
+
+    /**
+     * Single attempt, no retries and no circuit breaker
+     */
+    public static RetryPolicy none() {
+        return RetryPolicy.builder().maxAttempts(1).circuitBreakerFailureThreshold(0).build();
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the delay is fixed and the other half is random,
+     * so concurrent clients do not retry in lock step.
+     *
+     * @param attempt the attempt that just failed, starting at 1
+     * @return delay in milliseconds before the next attempt
+     */
+    public long backoffMillis(int attempt) {
+        double exponential = initialBackoff.toMillis() * Math.pow(backoffMultiplier, attempt - 1);
+        long cap = (long) Math.min(maxBackoff.toMillis(), exponential);
+        long half = cap / 2;
+        return half + ThreadLocalRandom.current().nextLong(cap - half + 1);
+    }
+}
@@ -0,0 +1,124 @@
+package uk.ac.ebi.pride.solr.api.client.routing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One API node and what the router knows about it: latency moving average, in-flight requests and ejection state
+ */
+public class Endpoint {
+
+    private final String baseUrl;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private double ewmaNanos;
+    private long lastSampleNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private long ejectedUntilNanos;
+    private boolean ejected;
+    private boolean probeInFlight;
+
+    Endpoint(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.lastSampleNanos = System.nanoTime();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public synchronized double getEwmaMillis() {
+        return ewmaNanos / 1e6;
+    }
+
+    public synchronized boolean isEjected() {
+        return ejected;
+    }
+
+    @Override
+    public String toString() {
+        return baseUrl;
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Load estimate used to pick between two nodes: expected latency times the requests it would queue behind
+     */
+    synchronized double cost() {
+        return Math.max(ewmaNanos, 1_000) * (outstanding.get() + 1);
+    }
+
+    synchronized boolean isAvailable() {
+        return !ejected;
+    }
+
+    /**
+     * @return true if the ejection is over and this caller may send the single probe request
+     */
+    synchronized boolean tryStartProbe(long now) {
+        if (!ejected || probeInFlight || now - ejectedUntilNanos < 0) {
+            return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+
+    synchronized long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    /**
+     * @return true if this success brought an ejected node back
+     */
+    synchronized boolean onSuccess(long latencyNanos, long decayNanos) {
+        outstanding.decrementAndGet();
+        sample(latencyNanos, decayNanos);
+        consecutiveFailures = 0;
+        boolean recovered = ejected;
+        ejected = false;
+        probeInFlight = false;
+        ejections = 0;
+        return recovered;
+    }
+
+    /**
+     * @return true if this failure ejected the node
+     */
+    synchronized boolean onFailure(long latencyNanos, long decayNanos, RoutingConfig config) {
+        outstanding.decrementAndGet();
+        // failures count as slow answers so that traffic moves away before the node is ejected
+        sample(Math.max(latencyNanos, (long) ewmaNanos * 2), decayNanos);
+        consecutiveFailures++;
+        if (probeInFlight || !ejected && consecutiveFailures >= config.getFailuresToEject()) {
+            long ejectionNanos = Math.min(config.getMaxEjectionTime().toNanos(),
+                    config.getEjectionTime().toNanos() << Math.min(ejections, 20));
+            ejected = true;
+            probeInFlight = false;
+            ejections++;
+            ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Peak EWMA: a slower sample is taken as is, faster ones are averaged in with a weight growing with the time
+     * since the previous sample
+     */
+    private void sample(long latencyNanos, long decayNanos) {
+        long now = System.nanoTime();
+        if (latencyNanos > ewmaNanos) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(double) Math.max(0, now - lastSampleNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastSampleNanos = now;
+    }
+}
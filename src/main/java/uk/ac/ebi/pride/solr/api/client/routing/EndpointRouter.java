@@ -0,0 +1,150 @@
+package uk.ac.ebi.pride.solr.api.client.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryBudget;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the API node of each attempt: power of two random choices between the nodes in rotation, keeping the one
+ * with the lower latency moving average times in-flight requests. Nodes failing {@code failuresToEject} times in a
+ * row are ejected, then let back in by a single probe request once their ejection time is over.
+ * If every node is ejected, the one due back first is used rather than failing outright.
+ * <p>
+ * Also keeps the recent read latencies the hedge delay is derived from.
+ */
+@Slf4j
+public class EndpointRouter {
+
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int MIN_SAMPLES_TO_HEDGE = 64;
+    private static final int HEDGE_DELAY_REFRESH = 128;
+
+    private final List<Endpoint> endpoints;
+    private final RoutingConfig config;
+    private final long decayNanos;
+    private final RetryBudget hedgeBudget;
+    private final long[] readLatencies = new long[LATENCY_SAMPLES];
+    private final AtomicLong readCount = new AtomicLong();
+    private volatile long hedgeDelayNanos = -1;
+
+    public EndpointRouter(List<String> baseUrls, RoutingConfig config) {
+        if (baseUrls == null || baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one API base url is needed");
+        }
+        this.endpoints = baseUrls.stream().map(Endpoint::new).toList();
+        this.config = config;
+        this.decayNanos = Math.max(1, config.getEwmaDecay().toNanos());
+        this.hedgeBudget = new RetryBudget(config.getMaxHedgeRatio(), 0);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * @param exclude node not to use, e.g. the one a hedged request is already waiting on; may be null
+     * @return the node for the next attempt, null only if {@code exclude} is the single node
+     */
+    public Endpoint choose(Endpoint exclude) {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0) == exclude ? null : endpoints.get(0);
+        }
+        long now = System.nanoTime();
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint != exclude && endpoint.tryStartProbe(now)) {
+                log.info("Probing ejected Solr API node {}", endpoint);
+                return endpoint;
+            }
+        }
+        Endpoint[] available = endpoints.stream().filter(e -> e != exclude && e.isAvailable()).toArray(Endpoint[]::new);
+        if (available.length == 0) {
+            return endpoints.stream().filter(e -> e != exclude)
+                    .min((a, b) -> Long.compare(a.getEjectedUntilNanos() - now, b.getEjectedUntilNanos() - now))
+                    .orElse(null);
+        }
+        if (available.length == 1) {
+            return available[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(available.length);
+        int second = random.nextInt(available.length - 1);
+        if (second >= first) {
+            second++;
+        }
+        return available[first].cost() <= available[second].cost() ? available[first] : available[second];
+    }
+
+    /**
+     * Marks the start of an attempt on the node
+     */
+    public void begin(Endpoint endpoint) {
+        endpoint.begin();
+    }
+
+    public void onSuccess(Endpoint endpoint, long latencyNanos) {
+        if (endpoint.onSuccess(latencyNanos, decayNanos)) {
+            log.info("Solr API node {} is back in rotation", endpoint);
+        }
+    }
+
+    /**
+     * @param serverDown I/O failure or 5xx; other errors show the node is up and count as a success
+     */
+    public void onFailure(Endpoint endpoint, long latencyNanos, boolean serverDown) {
+        if (!serverDown) {
+            onSuccess(endpoint, latencyNanos);
+        } else if (endpoint.onFailure(latencyNanos, decayNanos, config)) {
+            log.warn("Solr API node {} ejected after repeated failures", endpoint);
+        }
+    }
+
+    /**
+     * @return true if reads are hedged, which takes more than one node
+     */
+    public boolean isHedging() {
+        return config.isHedgeReads() && endpoints.size() > 1;
+    }
+
+    /**
+     * Records the latency of a successful read and counts it towards the hedge budget
+     */
+    public void recordRead(long latencyNanos) {
+        hedgeBudget.onRequest();
+        long count = readCount.incrementAndGet();
+        synchronized (readLatencies) {
+            readLatencies[(int) ((count - 1) % LATENCY_SAMPLES)] = latencyNanos;
+        }
+        if (count == MIN_SAMPLES_TO_HEDGE || count > MIN_SAMPLES_TO_HEDGE && count % HEDGE_DELAY_REFRESH == 0) {
+            refreshHedgeDelay(Math.min(count, LATENCY_SAMPLES));
+        }
+    }
+
+    /**
+     * @return how long to wait for a read before hedging it, -1 while there are too few samples to tell
+     */
+    public long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * @return true if one more hedge fits in the budget
+     */
+    public boolean tryAcquireHedge() {
+        return hedgeBudget.tryAcquireRetry();
+    }
+
+    private void refreshHedgeDelay(long samples) {
+        long[] sorted;
+        synchronized (readLatencies) {
+            sorted = Arrays.copyOf(readLatencies, (int) samples);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.min(samples - 1, Math.ceil(config.getHedgePercentile() * samples) - 1);
+        hedgeDelayNanos = Math.max(config.getMinHedgeDelay().toNanos(), sorted[Math.max(0, index)]);
+    }
+}
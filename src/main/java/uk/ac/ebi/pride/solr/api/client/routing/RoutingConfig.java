@@ -0,0 +1,64 @@
+package uk.ac.ebi.pride.solr.api.client.routing;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * How requests are spread over several API base urls, when a node is taken out of rotation, and when reads are hedged
+ */
+@Getter
+@Builder
+public class RoutingConfig {
+
+    /**
+     * Time constant of the latency moving average; older samples weigh less the longer ago they were taken
+     */
+    @Builder.Default
+    private final Duration ewmaDecay = Duration.ofSeconds(10);
+
+    /**
+     * Consecutive I/O failures or 5xx answers after which a node is ejected
+     */
+    @Builder.Default
+    private final int failuresToEject = 3;
+
+    /**
+     * Time out of rotation after the first ejection; doubled on each ejection in a row, up to {@code maxEjectionTime}.
+     * Once over, a single probe request decides whether the node is back.
+     */
+    @Builder.Default
+    private final Duration ejectionTime = Duration.ofSeconds(10);
+
+    @Builder.Default
+    private final Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /**
+     * Send a duplicate of a slow idempotent GET to a second node and use whichever answers first
+     */
+    @Builder.Default
+    private final boolean hedgeReads = false;
+
+    /**
+     * A read is hedged once it has taken longer than this percentile of recent read latencies
+     */
+    @Builder.Default
+    private final double hedgePercentile = 0.95;
+
+    /**
+     * Lower bound of the hedge delay
+     */
+    @Builder.Default
+    private final Duration minHedgeDelay = Duration.ofMillis(5);
+
+    /**
+     * Max number of hedges as a ratio of reads, so that hedging can not double the load on a slow cluster
+     */
+    @Builder.Default
+    private final double maxHedgeRatio = 0.1;
+
+    public static RoutingConfig defaults() {
+        return RoutingConfig.builder().build();
+    }
+}
@@ -0,0 +1,7 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+/**
+ * One value of a facet field and the number of projects having it
+ */
+public record FacetFieldEntry(String field, String value, long valueCount) {
+}
@@ -0,0 +1,7 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+/**
+ * Statistics of a numeric or date field over the whole result set
+ */
+public record FieldStats(Object min, Object max, Double sum, Long count, Long missing, Double mean, Double stddev) {
+}
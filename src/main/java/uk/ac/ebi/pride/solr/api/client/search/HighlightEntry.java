@@ -0,0 +1,10 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Highlighted snippets of one project of the page, by field name
+ */
+public record HighlightEntry(String accession, Map<String, List<String>> snippets) {
+}
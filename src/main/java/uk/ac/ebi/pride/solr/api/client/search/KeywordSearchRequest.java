@@ -0,0 +1,60 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+/**
+ * Parameters of a findByKeyword search: the keywords are sent as the body, everything else as query parameters
+ */
+@Getter
+@Builder(toBuilder = true)
+public class KeywordSearchRequest {
+
+    @Builder.Default
+    private final List<String> keywords = List.of();
+
+    /**
+     * Solr filter query, e.g. {@code organisms_facet==Homo sapiens (human)}
+     */
+    @Builder.Default
+    private final String filterQuery = "";
+
+    /**
+     * 0 based page number
+     */
+    private final int page;
+
+    @Builder.Default
+    private final int pageSize = 100;
+
+    /**
+     * Range gap of the date facets, e.g. {@code +1YEAR}
+     */
+    @Builder.Default
+    private final String dateGap = "";
+
+    @Builder.Default
+    private final String sortDirection = "DESC";
+
+    @Builder.Default
+    private final String sortFields = "submission_date";
+
+    public KeywordSearchRequest withPage(int page) {
+        return toBuilder().page(page).build();
+    }
+
+    public MultiValueMap<String, String> toQueryParams() {
+        MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+        queryParams.add("filterQuery", filterQuery);
+        queryParams.add("page", String.valueOf(page));
+        queryParams.add("pageSize", String.valueOf(pageSize));
+        queryParams.add("dateGap", dateGap);
+        queryParams.add("sortDirection", sortDirection);
+        queryParams.add("sortFields", sortFields);
+        return queryParams;
+    }
+}
@@ -0,0 +1,256 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a findByKeyword search. The projects and the paging counters are decoded with the page, the facet,
+ * highlight and field stats sections are only kept as buffered tokens and decoded the first time they are accessed.
+ */
+public class SearchPage {
+
+    private final List<PrideSolrProject> content;
+    private final long totalElements;
+    private final int totalPages;
+    private final int number;
+    private final int size;
+    private final boolean last;
+    private final Double maxScore;
+    private final Lazy<Map<String, List<FacetFieldEntry>>> facets;
+    private final Lazy<List<HighlightEntry>> highlighted;
+    private final Lazy<Map<String, FieldStats>> fieldStats;
+
+    private SearchPage(Builder builder, ObjectMapper objectMapper) {
+        this.content = Collections.unmodifiableList(builder.content);
+        this.totalElements = builder.totalElements;
+        this.totalPages = builder.totalPages;
+        this.number = builder.number;
+        this.size = builder.size;
+        this.last = builder.last;
+        this.maxScore = builder.maxScore;
+        TokenBuffer facetFields = builder.facetFields;
+        TokenBuffer facetResultPages = builder.facetResultPages;
+        TokenBuffer highlightedTokens = builder.highlighted;
+        TokenBuffer fieldStatsResults = builder.fieldStatsResults;
+        this.facets = new Lazy<>(() -> decodeFacets(objectMapper, facetFields, facetResultPages));
+        this.highlighted = new Lazy<>(() -> decodeHighlighted(objectMapper, highlightedTokens));
+        this.fieldStats = new Lazy<>(() -> decodeFieldStats(objectMapper, fieldStatsResults));
+    }
+
+    public List<PrideSolrProject> getContent() {
+        return content;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    /**
+     * @return 0 based number of this page
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    public Double getMaxScore() {
+        return maxScore;
+    }
+
+    /**
+     * @return the values of each facet field, by field name, in the order returned by the API
+     */
+    public Map<String, List<FacetFieldEntry>> getFacets() {
+        return facets.get();
+    }
+
+    public List<HighlightEntry> getHighlighted() {
+        return highlighted.get();
+    }
+
+    public Map<String, FieldStats> getFieldStats() {
+        return fieldStats.get();
+    }
+
+    /**
+     * Reads a page from the parser, positioned before its first token
+     *
+     * @return null if the API answered with an empty body or null
+     */
+    public static SearchPage read(JsonParser parser, ObjectMapper objectMapper) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a search page object but got " + token);
+        }
+        Builder builder = new Builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            token = parser.nextToken();
+            switch (field) {
+                case "content" -> {
+                    if (token == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                                builder.content.add(objectMapper.readValue(parser, PrideSolrProject.class));
+                            }
+                        }
+                    }
+                }
+                case "totalElements" -> builder.totalElements = parser.getValueAsLong();
+                case "totalPages" -> builder.totalPages = parser.getValueAsInt();
+                case "number" -> builder.number = parser.getValueAsInt();
+                case "size" -> builder.size = parser.getValueAsInt();
+                case "last" -> builder.last = parser.getValueAsBoolean();
+                case "maxScore" -> builder.maxScore = token == JsonToken.VALUE_NULL ? null : parser.getValueAsDouble();
+                case "facetFields" -> builder.facetFields = buffer(parser);
+                case "facetResultPages" -> builder.facetResultPages = buffer(parser);
+                case "highlighted" -> builder.highlighted = buffer(parser);
+                case "fieldStatsResults" -> builder.fieldStatsResults = buffer(parser);
+                // allFacets repeats facetResultPages, the rest is paging metadata already covered above
+                default -> parser.skipChildren();
+            }
+        }
+        return new SearchPage(builder, objectMapper);
+    }
+
+    private static TokenBuffer buffer(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentStructure(parser);
+        return buffer;
+    }
+
+    private static JsonNode tree(ObjectMapper objectMapper, TokenBuffer buffer) throws IOException {
+        if (buffer == null) {
+            return objectMapper.missingNode();
+        }
+        try (JsonParser parser = buffer.asParser(objectMapper)) {
+            return objectMapper.readTree(parser);
+        }
+    }
+
+    private static Map<String, List<FacetFieldEntry>> decodeFacets(ObjectMapper objectMapper, TokenBuffer facetFields,
+                                                                 TokenBuffer facetResultPages) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (JsonNode facetField : tree(objectMapper, facetFields)) {
+            names.add(facetField.path("name").asText());
+        }
+        Map<String, List<FacetFieldEntry>> facets = new LinkedHashMap<>();
+        int i = 0;
+        for (JsonNode page : tree(objectMapper, facetResultPages)) {
+            List<FacetFieldEntry> entries = new ArrayList<>();
+            for (JsonNode entry : page.path("content")) {
+                entries.add(new FacetFieldEntry(entry.path("field").path("name").asText(null),
+                        entry.path("value").asText(null), entry.path("valueCount").asLong()));
+            }
+            // facetResultPages is parallel to facetFields
+            String name = i < names.size() ? names.get(i) : entries.isEmpty() ? String.valueOf(i) : entries.get(0).field();
+            facets.put(name, Collections.unmodifiableList(entries));
+            i++;
+        }
+        return Collections.unmodifiableMap(facets);
+    }
+
+    private static List<HighlightEntry> decodeHighlighted(ObjectMapper objectMapper, TokenBuffer highlighted) throws IOException {
+        List<HighlightEntry> entries = new ArrayList<>();
+        for (JsonNode entry : tree(objectMapper, highlighted)) {
+            Map<String, List<String>> snippets = new LinkedHashMap<>();
+            for (JsonNode highlight : entry.path("highlights")) {
+                List<String> values = new ArrayList<>();
+                highlight.path("snipplets").forEach(snippet -> values.add(snippet.asText()));
+                snippets.put(highlight.path("field").path("name").asText(), values);
+            }
+            entries.add(new HighlightEntry(entry.path("entity").path("accession").asText(null), snippets));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    private static Map<String, FieldStats> decodeFieldStats(ObjectMapper objectMapper, TokenBuffer fieldStatsResults) throws IOException {
+        Map<String, FieldStats> stats = new LinkedHashMap<>();
+        JsonNode tree = tree(objectMapper, fieldStatsResults);
+        for (Map.Entry<String, JsonNode> field : (Iterable<Map.Entry<String, JsonNode>>) tree::fields) {
+            stats.put(field.getKey(), objectMapper.treeToValue(field.getValue(), FieldStats.class));
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static class Builder {
+        private final List<PrideSolrProject> content = new ArrayList<>();
+        private long totalElements;
+        private int totalPages;
+        private int number;
+        private int size;
+        private boolean last = true;
+        private Double maxScore;
+        private TokenBuffer facetFields;
+        private TokenBuffer facetResultPages;
+        private TokenBuffer highlighted;
+        private TokenBuffer fieldStatsResults;
+    }
+
+    @FunctionalInterface
+    private interface Decoder<T> {
+        T decode() throws IOException;
+    }
+
+    /**
+     * Decodes its section once, on first access, and then drops the buffered tokens
+     */
+    private static final class Lazy<T> {
+
+        private Decoder<T> decoder;
+        private volatile T value;
+
+        Lazy(Decoder<T> decoder) {
+            this.decoder = decoder;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        try {
+                            result = decoder.decode();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        value = result;
+                        decoder = null;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
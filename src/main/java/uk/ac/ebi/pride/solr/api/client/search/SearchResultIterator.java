@@ -0,0 +1,148 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over all the results of a search, page by page. While a page is consumed, the following
+ * {@code prefetchPages} pages are already being fetched in the background.
+ * Not thread safe; {@link #close()} cancels the pages still being fetched.
+ */
+public class SearchResultIterator implements Iterator<PrideSolrProject>, AutoCloseable {
+
+    private final IntFunction<CompletableFuture<SearchPage>> pageLoader;
+    private final int prefetchPages;
+    private final ArrayDeque<CompletableFuture<SearchPage>> fetching = new ArrayDeque<>();
+    private Iterator<PrideSolrProject> current = Collections.emptyIterator();
+    private int nextPageToFetch;
+    private int totalPages = -1;
+    private long totalElements = -1;
+    private boolean closed;
+
+    /**
+     * @param pageLoader    fetches the page with the given 0 based number, completing with null if there is none
+     * @param firstPage     number of the first page to fetch
+     * @param prefetchPages number of pages fetched ahead of the one being consumed, at least 1
+     */
+    public SearchResultIterator(IntFunction<CompletableFuture<SearchPage>> pageLoader, int firstPage, int prefetchPages) {
+        this.pageLoader = pageLoader;
+        this.prefetchPages = Math.max(1, prefetchPages);
+        this.nextPageToFetch = firstPage;
+        fetch();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed || fetching.isEmpty()) {
+                return false;
+            }
+            SearchPage page = await(fetching.poll());
+            if (page == null) {
+                cancelFetching();
+                return false;
+            }
+            if (totalPages < 0) {
+                totalPages = page.getTotalPages();
+                totalElements = page.getTotalElements();
+            }
+            if (page.isLast() || page.getContent().isEmpty()) {
+                // nothing after this page, e.g. the result set shrank while iterating
+                totalPages = Math.min(totalPages, page.getNumber() + 1);
+                cancelFetching();
+            }
+            prefetch();
+            current = page.getContent().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public PrideSolrProject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * @return total number of results as reported by the first page, -1 before it has been received
+     */
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Not sized: the total reported by the API also counts the results already consumed or on skipped pages
+     */
+    public Spliterator<PrideSolrProject> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return a sequential stream over the remaining results, closing it closes this iterator
+     */
+    public Stream<PrideSolrProject> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        cancelFetching();
+        current = Collections.emptyIterator();
+    }
+
+    private void prefetch() {
+        while (fetching.size() < prefetchPages && nextPageToFetch < totalPages) {
+            fetch();
+        }
+    }
+
+    private void fetch() {
+        fetching.add(pageLoader.apply(nextPageToFetch++));
+    }
+
+    private void cancelFetching() {
+        fetching.forEach(page -> page.cancel(false));
+        fetching.clear();
+    }
+
+    private SearchPage await(CompletableFuture<SearchPage> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("Interrupted while waiting for the next search page");
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
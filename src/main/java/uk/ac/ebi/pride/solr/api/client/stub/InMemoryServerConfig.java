@@ -0,0 +1,54 @@
+package uk.ac.ebi.pride.solr.api.client.stub;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of an {@link InMemorySolrApiServer}: added latency, injected errors and throttling
+ */
+@Getter
+@Builder(toBuilder = true)
+public class InMemoryServerConfig {
+
+    /**
+     * 0 picks a free port
+     */
+    private final int port;
+
+    /**
+     * Added to every request
+     */
+    @Builder.Default
+    private final Duration latency = Duration.ZERO;
+
+    /**
+     * Random extra latency, uniformly distributed between 0 and this
+     */
+    @Builder.Default
+    private final Duration latencyJitter = Duration.ZERO;
+
+    /**
+     * Fraction of the requests (0 to 1) answered with {@link #errorStatus} instead of being processed
+     */
+    private final double errorRate;
+
+    @Builder.Default
+    private final int errorStatus = 503;
+
+    /**
+     * Requests above this rate are answered 429 with a Retry-After header; 0 (the default) disables throttling
+     */
+    private final int maxRequestsPerSecond;
+
+    /**
+     * Accept and answer Smile/CBOR bodies; when false binary request bodies are rejected with 415
+     */
+    @Builder.Default
+    private final boolean binaryFormats = true;
+
+    public static InMemoryServerConfig defaults() {
+        return InMemoryServerConfig.builder().build();
+    }
+}
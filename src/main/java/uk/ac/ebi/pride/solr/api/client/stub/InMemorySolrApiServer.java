@@ -0,0 +1,449 @@
+package uk.ac.ebi.pride.solr.api.client.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Lightweight in-memory stand-in of the PRIDE Solr API, implementing the {@code /project/*} endpoints used by
+ * {@link uk.ac.ebi.pride.solr.api.client.SolrProjectClient}, for load tests and benchmarks without network or Solr.
+ * Latency, error rate and throttling are set with an {@link InMemoryServerConfig}.
+ * <p>
+ * Projects are kept as JSON trees, by accession. Gzip request bodies and Smile/CBOR bodies are understood,
+ * responses are sent in the format asked for by the Accept header.
+ */
+@Slf4j
+public class InMemorySolrApiServer implements AutoCloseable {
+
+    private static final String PROJECT_URL_PATH = "/project";
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String CBOR = "application/cbor";
+    private static final String JSON = "application/json";
+
+    private final InMemoryServerConfig config;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper jsonMapper = Utils.getJacksonObjectMapper();
+    private final Map<String, ObjectMapper> mappers = new HashMap<>();
+    private final ConcurrentSkipListMap<String, ObjectNode> projects = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, String> accessionById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final Object throttleLock = new Object();
+    private long throttleWindowStart = System.nanoTime();
+    private int throttleWindowCount;
+
+    private InMemorySolrApiServer(InMemoryServerConfig config) throws IOException {
+        this.config = config;
+        this.mappers.put(JSON, jsonMapper);
+        this.mappers.put(SMILE, Utils.getJacksonObjectMapper(new SmileFactory()));
+        this.mappers.put(CBOR, Utils.getJacksonObjectMapper(new CBORFactory()));
+        this.server = HttpServer.create(new InetSocketAddress("localhost", config.getPort()), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext(PROJECT_URL_PATH + "/", this::handle);
+    }
+
+    public static InMemorySolrApiServer start() throws IOException {
+        return start(InMemoryServerConfig.defaults());
+    }
+
+    public static InMemorySolrApiServer start(InMemoryServerConfig config) throws IOException {
+        InMemorySolrApiServer server = new InMemorySolrApiServer(config);
+        server.server.start();
+        log.info("In-memory Solr API listening on {}", server.getBaseUrl());
+        return server;
+    }
+
+    /**
+     * @return the URL to use as {@code apiBaseUrl} of the client
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Adds or replaces projects, without going through HTTP
+     */
+    public void seed(Collection<PrideSolrProject> seedProjects) {
+        seedProjects.forEach(project -> store(validProject(jsonMapper.valueToTree(project))));
+    }
+
+    public int getProjectCount() {
+        return projects.size();
+    }
+
+    /**
+     * @param path e.g. {@code /project/saveAll}
+     * @return number of requests received on this endpoint, including the rejected ones
+     */
+    public long getRequestCount(String path) {
+        LongAdder count = requestCounts.get(path);
+        return count == null ? 0 : count.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        requestCounts.computeIfAbsent(path, key -> new LongAdder()).increment();
+        try {
+            if (throttled()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 429, null);
+                return;
+            }
+            delay();
+            if (config.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.getErrorRate()) {
+                drain(exchange);
+                send(exchange, config.getErrorStatus(), null);
+                return;
+            }
+            route(exchange, path.substring(PROJECT_URL_PATH.length()));
+        } catch (UnsupportedFormatException e) {
+            send(exchange, 415, null);
+        } catch (IllegalArgumentException | ClassCastException | JsonProcessingException e) {
+            // a malformed request: a 400, so that the client does not retry it
+            log.warn("{} {} rejected: {}", exchange.getRequestMethod(), path, e.getMessage());
+            send(exchange, 400, null);
+        } catch (Exception e) {
+            log.warn("{} {} failed: {}", exchange.getRequestMethod(), path, e.getMessage());
+            send(exchange, 500, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, String endpoint) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        switch (endpoint) {
+            case "/findByAccession" -> send(exchange, 200, project(params.getOrDefault("accession", ""), params.get("fields")));
+            case "/findByAccessions" -> {
+                ArrayNode found = jsonMapper.createArrayNode();
+                for (JsonNode accession : readBody(exchange)) {
+                    ObjectNode project = projects.get(accession.asText());
+                    if (project != null) {
+                        found.add(project);
+                    }
+                }
+                send(exchange, 200, found);
+            }
+            case "/save", "/update", "/upsert" -> send(exchange, 200, store(validProject(readBody(exchange))));
+            case "/partialUpdate" -> send(exchange, 200, partialUpdate((ObjectNode) readBody(exchange)));
+            case "/saveAll" -> {
+                JsonNode body = readBody(exchange);
+                if (!body.isArray()) {
+                    throw new IllegalArgumentException("saveAll needs an array of projects");
+                }
+                // the whole batch is checked first, so a bad project does not leave it partly stored
+                List<ObjectNode> batch = new ArrayList<>();
+                for (JsonNode project : body) {
+                    batch.add(validProject(project));
+                }
+                batch.forEach(this::store);
+                send(exchange, 200, null);
+            }
+            case "/deleteProjectById" -> {
+                String accession = accessionById.remove(params.getOrDefault("id", ""));
+                if (accession != null) {
+                    projects.remove(accession);
+                }
+                send(exchange, 204, null);
+            }
+            case "/deleteAll" -> {
+                projects.clear();
+                accessionById.clear();
+                send(exchange, 204, null);
+            }
+            case "/findAllAccessions" -> send(exchange, 200, jsonMapper.valueToTree(projects.keySet()));
+            case "/findAllIds" -> send(exchange, 200, jsonMapper.valueToTree(accessionById.keySet()));
+            case "/findProjectAccessionsWithEmptyFileNames" ->
+                    send(exchange, 200, accessionsWhere(project -> isEmpty(project.get("projectFileNames"))));
+            case "/findProjectAccessionsWithEmptyPeptideSequencesOrProteinIdentifications" ->
+                    send(exchange, 200, accessionsWhere(project -> isEmpty(project.get("peptideSequences"))
+                            || isEmpty(project.get("proteinIdentifications"))));
+            case "/findByKeyword" -> send(exchange, 200, findByKeyword(readBody(exchange), params));
+            default -> send(exchange, 404, null);
+        }
+    }
+
+    /**
+     * @param fields comma separated field list, all fields if null
+     */
+    private ObjectNode project(String accession, String fields) {
+        ObjectNode project = projects.get(accession);
+        if (project == null || fields == null) {
+            return project;
+        }
+        List<String> names = new ArrayList<>(List.of(fields.split(",")));
+        names.add("id");
+        names.add("accession");
+        return project.deepCopy().retain(names);
+    }
+
+    private static ObjectNode validProject(JsonNode project) {
+        if (!(project instanceof ObjectNode node) || node.path("accession").asText(null) == null) {
+            throw new IllegalArgumentException("project without accession");
+        }
+        return node;
+    }
+
+    /**
+     * @param project a project checked by {@link #validProject(JsonNode)}
+     * @return the stored project, with an id assigned if it had none
+     */
+    private ObjectNode store(ObjectNode project) {
+        String accession = project.path("accession").asText();
+        String id = project.path("id").asText(null);
+        if (id == null) {
+            id = UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+            project.put("id", id);
+        }
+        String previousAccession = accessionById.put(id, accession);
+        if (previousAccession != null && !previousAccession.equals(accession)) {
+            projects.remove(previousAccession);
+        }
+        ObjectNode previous = projects.put(accession, project);
+        // the accession saved again under another id: its old id is gone
+        String previousId = previous == null ? null : previous.path("id").asText(null);
+        if (previousId != null && !previousId.equals(id)) {
+            accessionById.remove(previousId, accession);
+        }
+        return project;
+    }
+
+    /**
+     * Applies a Solr atomic update document (set, add-distinct, remove) to the stored project
+     *
+     * @return the updated project, null if there is no project with this id
+     */
+    private ObjectNode partialUpdate(ObjectNode patch) {
+        String accession = accessionById.get(patch.path("id").asText(""));
+        ObjectNode project = accession == null ? null : projects.get(accession);
+        if (project == null) {
+            return null;
+        }
+        ObjectNode updated = project.deepCopy();
+        patch.fields().forEachRemaining(field -> {
+            JsonNode operations = field.getValue();
+            if (field.getKey().equals("id") || field.getKey().equals("accession") || !operations.isObject()) {
+                return;
+            }
+            if (operations.has("set")) {
+                updated.set(field.getKey(), operations.get("set"));
+            }
+            ArrayNode values = updated.path(field.getKey()).isArray() ? (ArrayNode) updated.get(field.getKey())
+                    : jsonMapper.createArrayNode();
+            for (JsonNode value : operations.path("add-distinct")) {
+                if (!contains(values, value)) {
+                    values.add(value);
+                }
+            }
+            for (JsonNode value : operations.path("remove")) {
+                for (int i = values.size() - 1; i >= 0; i--) {
+                    if (values.get(i).equals(value)) {
+                        values.remove(i);
+                    }
+                }
+            }
+            if (operations.has("add-distinct") || operations.has("remove")) {
+                updated.set(field.getKey(), values);
+            }
+        });
+        projects.put(accession, updated);
+        return updated;
+    }
+
+    private static boolean contains(ArrayNode values, JsonNode value) {
+        for (JsonNode element : values) {
+            if (element.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ArrayNode accessionsWhere(Predicate<ObjectNode> predicate) {
+        ArrayNode accessions = jsonMapper.createArrayNode();
+        projects.forEach((accession, project) -> {
+            if (predicate.test(project)) {
+                accessions.add(accession);
+            }
+        });
+        return accessions;
+    }
+
+    private static boolean isEmpty(JsonNode node) {
+        return node == null || node.isNull() || node.isEmpty();
+    }
+
+    /**
+     * Projects whose JSON contains all the keywords (case insensitive), sorted by accession, without facets
+     */
+    private ObjectNode findByKeyword(JsonNode keywords, Map<String, String> params) {
+        List<String> terms = new ArrayList<>();
+        keywords.forEach(keyword -> {
+            String term = keyword.asText().trim().toLowerCase(Locale.ROOT);
+            if (!term.isEmpty() && !term.equals("*")) {
+                terms.add(term);
+            }
+        });
+        List<ObjectNode> matches = new ArrayList<>();
+        for (ObjectNode project : projects.values()) {
+            String text = terms.isEmpty() ? "" : project.toString().toLowerCase(Locale.ROOT);
+            if (terms.stream().allMatch(text::contains)) {
+                matches.add(project);
+            }
+        }
+        int page = Integer.parseInt(params.getOrDefault("page", "0"));
+        int pageSize = Math.max(1, Integer.parseInt(params.getOrDefault("pageSize", "100")));
+        int totalPages = (matches.size() + pageSize - 1) / pageSize;
+        List<ObjectNode> content = matches.subList(Math.min(matches.size(), page * pageSize),
+                Math.min(matches.size(), (page + 1) * pageSize));
+
+        ObjectNode result = jsonMapper.createObjectNode();
+        result.putArray("content").addAll(content);
+        result.putArray("facetFields");
+        result.putArray("facetResultPages");
+        result.putArray("highlighted");
+        result.putObject("fieldStatsResults");
+        result.put("totalElements", matches.size());
+        result.put("totalPages", totalPages);
+        result.put("numberOfElements", content.size());
+        result.put("size", pageSize);
+        result.put("number", page);
+        result.put("first", page == 0);
+        result.put("last", page >= totalPages - 1);
+        return result;
+    }
+
+    private boolean throttled() {
+        if (config.getMaxRequestsPerSecond() <= 0) {
+            return false;
+        }
+        synchronized (throttleLock) {
+            long now = System.nanoTime();
+            if (now - throttleWindowStart >= 1_000_000_000L) {
+                throttleWindowStart = now;
+                throttleWindowCount = 0;
+            }
+            return ++throttleWindowCount > config.getMaxRequestsPerSecond();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long nanos = config.getLatency().toNanos();
+        long jitter = config.getLatencyJitter().toNanos();
+        if (jitter > 0) {
+            nanos += ThreadLocalRandom.current().nextLong(jitter);
+        }
+        if (nanos > 0) {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        }
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        ObjectMapper mapper = mapperFor(contentType == null ? JSON : contentType);
+        InputStream body = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+        }
+        JsonNode tree = mapper.readTree(body);
+        return tree == null ? jsonMapper.missingNode() : tree;
+    }
+
+    private ObjectMapper mapperFor(String contentType) {
+        String mediaType = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        if (mediaType.equals(JSON)) {
+            return jsonMapper;
+        }
+        ObjectMapper mapper = mappers.get(mediaType);
+        if (mapper == null || !config.isBinaryFormats()) {
+            throw new UnsupportedFormatException();
+        }
+        return mapper;
+    }
+
+    /**
+     * @param body sent in the format asked for by the Accept header, null for an empty body
+     */
+    private void send(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        String contentType = responseType(exchange.getRequestHeaders().getFirst("Accept"));
+        byte[] bytes = mappers.get(contentType).writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private String responseType(String accept) {
+        if (accept != null && config.isBinaryFormats()) {
+            String first = accept.split(",")[0].split(";")[0].trim().toLowerCase(Locale.ROOT);
+            if (first.equals(SMILE) || first.equals(CBOR)) {
+                return first;
+            }
+        }
+        return JSON;
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static class UnsupportedFormatException extends RuntimeException {
+    }
+}
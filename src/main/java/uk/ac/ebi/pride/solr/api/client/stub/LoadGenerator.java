@@ -0,0 +1,103 @@
+package uk.ac.ebi.pride.solr.api.client.stub;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open-loop load generator: starts calls at a fixed target rate, whether or not the previous ones have completed,
+ * each on its own virtual thread. Latencies are measured from the time a call was scheduled to start, so a stalled
+ * client shows up in the percentiles instead of silently lowering the rate (no coordinated omission).
+ */
+@Slf4j
+@Getter
+@Builder(toBuilder = true)
+public class LoadGenerator {
+
+    /**
+     * One call to the client, e.g. {@code () -> client.findByAccession(accession)}
+     */
+    @FunctionalInterface
+    public interface Operation {
+        void run(long sequence) throws Exception;
+    }
+
+    @Builder.Default
+    private final int requestsPerSecond = 100;
+
+    @Builder.Default
+    private final Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * Calls made before the measurement starts (JIT, connection pool)
+     */
+    @Builder.Default
+    private final Duration warmup = Duration.ofSeconds(5);
+
+    /**
+     * Calls that would exceed this number of in-flight calls are not started and counted as dropped
+     */
+    @Builder.Default
+    private final int maxInFlight = 10_000;
+
+    public LoadReport run(Operation operation) throws InterruptedException {
+        if (!warmup.isZero()) {
+            drive(operation, warmup, new LatencyHistogram());
+        }
+        LatencyHistogram histogram = new LatencyHistogram();
+        Counters counters = drive(operation, duration, histogram);
+        LoadReport report = new LoadReport(requestsPerSecond, counters.elapsedNanos, counters.completed.sum(),
+                counters.errors.sum(), counters.dropped.sum(), histogram);
+        log.info("Load test finished: {}", report);
+        return report;
+    }
+
+    private Counters drive(Operation operation, Duration runFor, LatencyHistogram histogram) throws InterruptedException {
+        Counters counters = new Counters();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long total = runFor.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long sequence = 0; sequence < total; sequence++) {
+                long scheduled = start + sequence * intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    counters.dropped.increment();
+                    continue;
+                }
+                long callSequence = sequence;
+                executor.execute(() -> {
+                    try {
+                        operation.run(callSequence);
+                        counters.completed.increment();
+                    } catch (Exception e) {
+                        counters.errors.increment();
+                    } finally {
+                        histogram.record(System.nanoTime() - scheduled);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        counters.elapsedNanos = System.nanoTime() - start;
+        return counters;
+    }
+
+    private static class Counters {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private long elapsedNanos;
+    }
+}
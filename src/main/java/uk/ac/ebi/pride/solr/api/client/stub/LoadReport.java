@@ -0,0 +1,43 @@
+package uk.ac.ebi.pride.solr.api.client.stub;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link LoadGenerator} run
+ *
+ * @param targetRate   requests per second asked for
+ * @param elapsedNanos duration of the measurement, until the last call completed
+ * @param completed    calls that succeeded
+ * @param errors       calls that threw
+ * @param dropped      calls not started because too many were in flight
+ * @param latencies    latency of every started call, from its scheduled start
+ */
+public record LoadReport(int targetRate, long elapsedNanos, long completed, long errors, long dropped,
+                         LatencyHistogram latencies) {
+
+    /**
+     * @return successful calls per second
+     */
+    public double throughput() {
+        return completed * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    public double p50Millis() {
+        return latencies.percentile(50, TimeUnit.MILLISECONDS);
+    }
+
+    public double p99Millis() {
+        return latencies.percentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    public double p999Millis() {
+        return latencies.percentile(99.9, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("target %d/s, throughput %.1f/s, %d ok, %d errors, %d dropped, p50 %.2f ms, p99 %.2f ms, p999 %.2f ms, max %.2f ms",
+                targetRate, throughput(), completed, errors, dropped, p50Millis(), p99Millis(), p999Millis(),
+                latencies.max() / 1e6);
+    }
+}
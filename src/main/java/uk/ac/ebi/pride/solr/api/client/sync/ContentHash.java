@@ -0,0 +1,12 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+/**
+ * 128 bit content hash of a project (the first half of its SHA-256)
+ */
+public record ContentHash(long high, long low) {
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,188 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+import lombok.extern.slf4j.Slf4j;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Incremental alternative to a full reindex. Each project of the source of truth is hashed and compared with the
+ * {@link HashManifest}: only new or changed projects, and projects missing on the server, are sent with saveAll in
+ * batches, and projects that are in the manifest or on the server but no longer in the source are deleted.
+ * The manifest is only updated after the API accepted the change, so failures are picked up by the next run.
+ */
+@Slf4j
+public class DeltaSync {
+
+    private final SolrProjectClient client;
+    private final HashManifest manifest;
+    private final DeltaSyncOptions options;
+    private final ProjectHasher hasher = new ProjectHasher();
+
+    public DeltaSync(SolrProjectClient client, HashManifest manifest) {
+        this(client, manifest, DeltaSyncOptions.defaults());
+    }
+
+    public DeltaSync(SolrProjectClient client, HashManifest manifest, DeltaSyncOptions options) {
+        this.client = client;
+        this.manifest = manifest;
+        this.options = options;
+    }
+
+    /**
+     * Changes are planned in a first pass over the source and sent in a second one, so that the max delete ratio is
+     * checked before anything is sent. Projects whose accession or id can not be recorded in the manifest are not sent.
+     *
+     * @param source all projects that should be on the server; it is iterated twice, so it can be a lazily loaded
+     *               sequence but must be repeatable. Projects that changed in between are picked up by the next run.
+     * @throws IOException if the manifest can not record a change the API accepted
+     */
+    public DeltaSyncReport sync(Iterable<PrideSolrProject> source) throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        Set<String> serverAccessions = client.findAllAccessions().orElse(Collections.emptySet());
+        Set<String> seenAccessions = new HashSet<>();
+        Set<String> seenIds = new HashSet<>();
+        Map<String, ContentHash> changed = new HashMap<>();
+        List<String> failedUpserts = new ArrayList<>();
+        int scanned = 0;
+        int unchanged = 0;
+
+        for (PrideSolrProject project : source) {
+            String accession = project.getAccession();
+            if (!seenAccessions.add(accession)) {
+                log.warn("Duplicate accession {} in source, keeping the first one", accession);
+                continue;
+            }
+            scanned++;
+            String id = project.getId() == null ? null : String.valueOf(project.getId());
+            if (id != null) {
+                seenIds.add(id);
+            }
+            try {
+                HashManifest.validate(accession, id);
+            } catch (IllegalArgumentException e) {
+                log.error("Project {} is not sent, it can not be recorded in the manifest: {}", accession, e.getMessage());
+                failedUpserts.add(accession);
+                continue;
+            }
+            ContentHash hash = hasher.hash(project);
+            HashManifest.Entry entry = manifest.get(accession);
+            if (entry != null && entry.hash().equals(hash) && serverAccessions.contains(accession)) {
+                unchanged++;
+                continue;
+            }
+            changed.put(accession, hash);
+        }
+
+        Set<String> removed = new HashSet<>(manifest.accessions());
+        removed.addAll(serverAccessions);
+        removed.removeAll(seenAccessions);
+        int known = Math.max(manifest.size(), serverAccessions.size());
+        if (!removed.isEmpty() && removed.size() > known * options.getMaxDeleteRatio()) {
+            throw new IllegalStateException("Refusing to delete " + removed.size() + " of " + known
+                    + " projects, more than the configured max delete ratio of " + options.getMaxDeleteRatio());
+        }
+
+        int upserted = 0;
+        if (!changed.isEmpty()) {
+            List<PrideSolrProject> batch = new ArrayList<>(options.getBatchSize());
+            List<ContentHash> batchHashes = new ArrayList<>(options.getBatchSize());
+            for (PrideSolrProject project : source) {
+                // only the first occurrence of a changed accession, projects new to the source wait for the next run
+                ContentHash hash = changed.remove(project.getAccession());
+                if (hash == null) {
+                    continue;
+                }
+                batch.add(project);
+                batchHashes.add(hash);
+                if (batch.size() >= options.getBatchSize()) {
+                    upserted += flush(batch, batchHashes, failedUpserts);
+                }
+            }
+            upserted += flush(batch, batchHashes, failedUpserts);
+            if (!changed.isEmpty()) {
+                log.warn("{} changed projects left the source during the sync and were not sent", changed.size());
+            }
+        }
+
+        List<String> failedDeletes = new ArrayList<>();
+        int deleted = 0;
+        for (String accession : removed) {
+            if (delete(accession, seenIds)) {
+                deleted++;
+            } else {
+                failedDeletes.add(accession);
+            }
+        }
+        if (!options.isDryRun()) {
+            manifest.force();
+        }
+
+        DeltaSyncReport report = new DeltaSyncReport(scanned, unchanged, upserted, deleted,
+                Collections.unmodifiableList(failedUpserts), Collections.unmodifiableList(failedDeletes),
+                System.currentTimeMillis() - start);
+        log.info("Delta sync: {}", report);
+        return report;
+    }
+
+    /**
+     * Sends the batch; a failed saveAll is reported, a manifest that can not record the saved projects fails the run
+     */
+    private int flush(List<PrideSolrProject> batch, List<ContentHash> hashes, List<String> failed) throws IOException, InterruptedException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        if (!options.isDryRun()) {
+            try {
+                client.saveAll(batch);
+            } catch (IOException | RuntimeException e) {
+                log.error("saveAll of {} changed projects failed: {}", size, e.getMessage());
+                batch.forEach(p -> failed.add(p.getAccession()));
+                batch.clear();
+                hashes.clear();
+                return 0;
+            }
+            for (int i = 0; i < size; i++) {
+                PrideSolrProject project = batch.get(i);
+                manifest.put(project.getAccession(), project.getId() == null ? null : String.valueOf(project.getId()), hashes.get(i));
+            }
+        }
+        batch.clear();
+        hashes.clear();
+        return size;
+    }
+
+    private boolean delete(String accession, Set<String> seenIds) throws InterruptedException {
+        try {
+            HashManifest.Entry entry = manifest.get(accession);
+            String id = entry == null ? null : entry.id();
+            if (id == null) {
+                Optional<PrideSolrProject> project = client.findByAccession(accession);
+                id = project.map(p -> p.getId() == null ? null : String.valueOf(p.getId())).orElse(null);
+            }
+            if (options.isDryRun()) {
+                return true;
+            }
+            // an id still used by the source belongs to a project whose accession changed, deleting it would
+            // remove the project that was just sent
+            if (id != null && !seenIds.contains(id)) {
+                client.deleteProjectById(id);
+            }
+            manifest.remove(accession);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Delete of {} failed: {}", accession, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * How {@link DeltaSync} sends the changes it finds
+ */
+@Getter
+@Builder
+public class DeltaSyncOptions {
+
+    /**
+     * Max number of changed projects in one saveAll request
+     */
+    @Builder.Default
+    private final int batchSize = 200;
+
+    /**
+     * Refuse to delete if more than this fraction of the known projects would go, which usually means the
+     * source of truth was incomplete rather than that the projects were withdrawn
+     */
+    @Builder.Default
+    private final double maxDeleteRatio = 0.1;
+
+    /**
+     * Only compute the changes, send nothing and leave the manifest untouched
+     */
+    @Builder.Default
+    private final boolean dryRun = false;
+
+    public static DeltaSyncOptions defaults() {
+        return DeltaSyncOptions.builder().build();
+    }
+}
@@ -0,0 +1,14 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link DeltaSync} run. Failed accessions keep their old manifest entry, so the next run sends them again.
+ */
+public record DeltaSyncReport(int scanned, int unchanged, int upserted, int deleted,
+                              List<String> failedUpserts, List<String> failedDeletes, long elapsedMillis) {
+
+    public boolean isSuccessful() {
+        return failedUpserts.isEmpty() && failedDeletes.isEmpty();
+    }
+}
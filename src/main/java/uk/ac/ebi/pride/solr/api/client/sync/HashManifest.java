@@ -0,0 +1,211 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local manifest of what was last sent to the API: accession, project id and content hash of every project, kept in a
+ * memory mapped file of fixed size records (80 bytes each, about 8 MB for 100k projects) so it survives restarts.
+ * Only the accession to record index is kept on the heap; it is rebuilt by scanning the file when opened.
+ */
+@Slf4j
+public class HashManifest implements Closeable {
+
+    static final int MAGIC = 0x50534d31; // "PSM1"
+    static final int HEADER_BYTES = 16;
+    static final int MAX_ACCESSION_BYTES = 24;
+    static final int MAX_ID_BYTES = 32;
+    static final int RECORD_BYTES = 80;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // record layout: live flag, accession length, id length, padding, accession, id, hash
+    private static final int ACCESSION_OFFSET = 8;
+    private static final int ID_OFFSET = ACCESSION_OFFSET + MAX_ACCESSION_BYTES;
+    private static final int HASH_OFFSET = ID_OFFSET + MAX_ID_BYTES;
+
+    private final FileChannel channel;
+    private final Map<String, Integer> index = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int slots;
+
+    public record Entry(String accession, String id, ContentHash hash) {
+    }
+
+    private HashManifest(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the manifest at the given path, creating an empty one if the file does not exist
+     */
+    public static HashManifest open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        HashManifest manifest = new HashManifest(channel);
+        try {
+            manifest.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return manifest;
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            map(INITIAL_CAPACITY);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, RECORD_BYTES);
+            buffer.putInt(8, 0);
+            return;
+        }
+        if (size < HEADER_BYTES) {
+            throw new IOException("Truncated hash manifest, " + size + " bytes");
+        }
+        map(Math.max(INITIAL_CAPACITY, (int) ((size - HEADER_BYTES) / RECORD_BYTES)));
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != RECORD_BYTES) {
+            throw new IOException("Not a hash manifest or written with another record layout");
+        }
+        slots = Math.min(buffer.getInt(8), capacity);
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = offset(slot);
+            if (buffer.get(offset) == 1) {
+                index.put(readString(offset + ACCESSION_OFFSET, buffer.get(offset + 1)), slot);
+            } else {
+                freeSlots.add(slot);
+            }
+        }
+        log.debug("Loaded hash manifest with {} projects", index.size());
+    }
+
+    private void map(int newCapacity) throws IOException {
+        capacity = newCapacity;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) newCapacity * RECORD_BYTES);
+    }
+
+    public synchronized Entry get(String accession) {
+        Integer slot = index.get(accession);
+        if (slot == null) {
+            return null;
+        }
+        int offset = offset(slot);
+        String id = readString(offset + ID_OFFSET, buffer.get(offset + 2));
+        return new Entry(accession, id.isEmpty() ? null : id,
+                new ContentHash(buffer.getLong(offset + HASH_OFFSET), buffer.getLong(offset + HASH_OFFSET + 8)));
+    }
+
+    /**
+     * Checks that an entry can be recorded, before the project is sent
+     *
+     * @param id project id, null if not known
+     * @throws IllegalArgumentException if the accession or id is not ASCII or does not fit in its record field
+     */
+    public static void validate(String accession, String id) {
+        encode(accession, MAX_ACCESSION_BYTES, "accession");
+        encode(id == null ? "" : id, MAX_ID_BYTES, "id");
+    }
+
+    /**
+     * @param id project id, null if not known
+     * @throws IllegalArgumentException if the accession or id is not ASCII or does not fit in its record field
+     */
+    public synchronized void put(String accession, String id, ContentHash hash) throws IOException {
+        byte[] accessionBytes = encode(accession, MAX_ACCESSION_BYTES, "accession");
+        byte[] idBytes = encode(id == null ? "" : id, MAX_ID_BYTES, "id");
+        Integer slot = index.get(accession);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? allocate() : freeSlots.poll();
+            index.put(accession, slot);
+        }
+        int offset = offset(slot);
+        buffer.put(offset, (byte) 0);
+        buffer.put(offset + 1, (byte) accessionBytes.length);
+        buffer.put(offset + 2, (byte) idBytes.length);
+        buffer.put(offset + ACCESSION_OFFSET, accessionBytes);
+        buffer.put(offset + ID_OFFSET, idBytes);
+        buffer.putLong(offset + HASH_OFFSET, hash.high());
+        buffer.putLong(offset + HASH_OFFSET + 8, hash.low());
+        buffer.put(offset, (byte) 1);
+    }
+
+    public synchronized void remove(String accession) {
+        Integer slot = index.remove(accession);
+        if (slot != null) {
+            buffer.put(offset(slot), (byte) 0);
+            freeSlots.add(slot);
+        }
+    }
+
+    public synchronized boolean contains(String accession) {
+        return index.containsKey(accession);
+    }
+
+    /**
+     * @return a snapshot of the accessions in the manifest
+     */
+    public synchronized Set<String> accessions() {
+        return Collections.unmodifiableSet(new HashSet<>(index.keySet()));
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Writes the mapped records to disk
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int allocate() throws IOException {
+        if (slots == capacity) {
+            if (capacity >= (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES / 2) {
+                throw new IOException("Hash manifest is full");
+            }
+            buffer.force();
+            map(capacity * 2);
+        }
+        buffer.putInt(8, slots + 1);
+        return slots++;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * RECORD_BYTES;
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] encode(String value, int maxBytes, String name) {
+        if (value == null || value.length() > maxBytes || !StandardCharsets.US_ASCII.newEncoder().canEncode(value)) {
+            throw new IllegalArgumentException("Project " + name + " must be ASCII of at most " + maxBytes + " characters: " + value);
+        }
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
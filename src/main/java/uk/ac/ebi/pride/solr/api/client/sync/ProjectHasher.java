@@ -0,0 +1,78 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes a stable content hash of a project: the project is serialized with sorted properties, map keys and set
+ * elements straight into a SHA-256 digest, so the same content always gives the same hash, whatever the
+ * iteration order of its sets and without building the JSON in memory.
+ */
+public class ProjectHasher {
+
+    private final ObjectMapper canonicalMapper;
+
+    public ProjectHasher() {
+        this.canonicalMapper = Utils.getJacksonObjectMapper();
+        canonicalMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+        canonicalMapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        canonicalMapper.registerModule(new SimpleModule("canonical-sets").addSerializer(new SortedSetSerializer()));
+    }
+
+    public ContentHash hash(PrideSolrProject project) {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            canonicalMapper.writeValue(out, project);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(digest.digest());
+        return new ContentHash(bytes.getLong(), bytes.getLong());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static class SortedSetSerializer extends StdSerializer<Set> {
+
+        SortedSetSerializer() {
+            super(Set.class);
+        }
+
+        @Override
+        public void serialize(Set set, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            List<Object> elements = new ArrayList<>(set);
+            elements.sort(Comparator.nullsFirst(Comparator.comparing(String::valueOf)));
+            generator.writeStartArray(set, elements.size());
+            for (Object element : elements) {
+                provider.defaultSerializeValue(element, generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package uk.ac.ebi.pride.solr.api.client.utils;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only set of project accessions.
+ * Accessions of the form PXD000000 / PRD000000 are packed into a sorted {@code int[]} (4 bytes per accession)
+ * and looked up with a binary search. Anything else is kept as a plain String in a small fallback set.
+ */
+public final class CompactAccessionSet extends AbstractSet<String> {
+
+    private static final String[] PREFIXES = {"PXD", "PRD"};
+    private static final int DIGITS = 6;
+    private static final int PREFIX_SHIFT = 24;
+    private static final int NUMBER_MASK = (1 << PREFIX_SHIFT) - 1;
+
+    private final int[] packed;
+    private final Set<String> others;
+
+    private CompactAccessionSet(int[] packed, Set<String> others) {
+        this.packed = packed;
+        this.others = others;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String accession)) {
+            return false;
+        }
+        int key = pack(accession);
+        if (key >= 0) {
+            return Arrays.binarySearch(packed, key) >= 0;
+        }
+        return others.contains(accession);
+    }
+
+    @Override
+    public int size() {
+        return packed.length + others.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> othersIterator = others.iterator();
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < packed.length || othersIterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (index < packed.length) {
+                    return unpack(packed[index++]);
+                }
+                if (othersIterator.hasNext()) {
+                    return othersIterator.next();
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    /**
+     * @return the packed key of the accession, or -1 if it does not follow the PXD/PRD + 6 digits pattern
+     */
+    static int pack(String accession) {
+        if (accession.length() != PREFIXES[0].length() + DIGITS) {
+            return -1;
+        }
+        int prefix = -1;
+        for (int i = 0; i < PREFIXES.length; i++) {
+            if (accession.startsWith(PREFIXES[i])) {
+                prefix = i;
+                break;
+            }
+        }
+        if (prefix < 0) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = PREFIXES[prefix].length(); i < accession.length(); i++) {
+            char c = accession.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return (prefix << PREFIX_SHIFT) | number;
+    }
+
+    static String unpack(int key) {
+        String number = Integer.toString(key & NUMBER_MASK);
+        StringBuilder sb = new StringBuilder(PREFIXES[0].length() + DIGITS).append(PREFIXES[key >>> PREFIX_SHIFT]);
+        for (int i = number.length(); i < DIGITS; i++) {
+            sb.append('0');
+        }
+        return sb.append(number).toString();
+    }
+
+    /**
+     * Collects accessions one by one (e.g. straight from a JSON stream) and builds the sorted set
+     */
+    public static final class Builder {
+
+        private int[] packed = new int[1024];
+        private int size = 0;
+        private final Set<String> others = new HashSet<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String accession) {
+            int key = pack(accession);
+            if (key < 0) {
+                others.add(accession);
+                return this;
+            }
+            if (size == packed.length) {
+                packed = Arrays.copyOf(packed, size * 2);
+            }
+            packed[size++] = key;
+            return this;
+        }
+
+        public CompactAccessionSet build() {
+            int[] sorted = Arrays.copyOf(packed, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            Set<String> otherAccessions = others.isEmpty() ? Collections.emptySet() : Set.copyOf(others);
+            return new CompactAccessionSet(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct), otherAccessions);
+        }
+    }
+}
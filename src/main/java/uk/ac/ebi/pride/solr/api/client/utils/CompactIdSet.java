@@ -0,0 +1,214 @@
+package uk.ac.ebi.pride.solr.api.client.utils;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only set of Mongo style ids.
+ * 24 character lower case hex ids are packed into 12 bytes (a {@code long} and an {@code int}),
+ * kept sorted and looked up with a binary search. Anything else is kept as a plain String in a small fallback set.
+ */
+public final class CompactIdSet extends AbstractSet<String> {
+
+    private static final int HEX_LENGTH = 24;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long[] high;
+    private final int[] low;
+    private final Set<String> others;
+
+    private CompactIdSet(long[] high, int[] low, Set<String> others) {
+        this.high = high;
+        this.low = low;
+        this.others = others;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String id)) {
+            return false;
+        }
+        if (!isPackable(id)) {
+            return others.contains(id);
+        }
+        return search(parseHex(id, 0, 16), (int) parseHex(id, 16, HEX_LENGTH)) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return high.length + others.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> othersIterator = others.iterator();
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < high.length || othersIterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (index < high.length) {
+                    String id = toHex(high[index], low[index]);
+                    index++;
+                    return id;
+                }
+                if (othersIterator.hasNext()) {
+                    return othersIterator.next();
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    private int search(long h, int l) {
+        int from = 0;
+        int to = high.length - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            int cmp = compare(high[mid], low[mid], h, l);
+            if (cmp < 0) {
+                from = mid + 1;
+            } else if (cmp > 0) {
+                to = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(long h1, int l1, long h2, int l2) {
+        int cmp = Long.compareUnsigned(h1, h2);
+        return cmp != 0 ? cmp : Integer.compareUnsigned(l1, l2);
+    }
+
+    static boolean isPackable(String id) {
+        if (id.length() != HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEX_LENGTH; i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 4) | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+
+    private static String toHex(long h, int l) {
+        char[] chars = new char[HEX_LENGTH];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (h & 0xF)];
+            h >>>= 4;
+        }
+        for (int i = HEX_LENGTH - 1; i >= 16; i--) {
+            chars[i] = HEX[l & 0xF];
+            l >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Collects ids one by one (e.g. straight from a JSON stream) and builds the sorted set
+     */
+    public static final class Builder {
+
+        private long[] high = new long[1024];
+        private int[] low = new int[1024];
+        private int size = 0;
+        private final Set<String> others = new HashSet<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String id) {
+            if (!isPackable(id)) {
+                others.add(id);
+                return this;
+            }
+            if (size == high.length) {
+                high = Arrays.copyOf(high, size * 2);
+                low = Arrays.copyOf(low, size * 2);
+            }
+            high[size] = parseHex(id, 0, 16);
+            low[size] = (int) parseHex(id, 16, HEX_LENGTH);
+            size++;
+            return this;
+        }
+
+        public CompactIdSet build() {
+            heapSort();
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || high[i] != high[i - 1] || low[i] != low[i - 1]) {
+                    high[distinct] = high[i];
+                    low[distinct] = low[i];
+                    distinct++;
+                }
+            }
+            Set<String> otherIds = others.isEmpty() ? Collections.emptySet() : Set.copyOf(others);
+            return new CompactIdSet(Arrays.copyOf(high, distinct), Arrays.copyOf(low, distinct), otherIds);
+        }
+
+        /**
+         * In-place sort of the two parallel arrays, no extra memory needed
+         */
+        private void heapSort() {
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i, size);
+            }
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftDown(int root, int end) {
+            while (true) {
+                int child = 2 * root + 1;
+                if (child >= end) {
+                    return;
+                }
+                if (child + 1 < end && compare(high[child], low[child], high[child + 1], low[child + 1]) < 0) {
+                    child++;
+                }
+                if (compare(high[root], low[root], high[child], low[child]) >= 0) {
+                    return;
+                }
+                swap(root, child);
+                root = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long h = high[i];
+            high[i] = high[j];
+            high[j] = h;
+            int l = low[i];
+            low[i] = low[j];
+            low[j] = l;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package uk.ac.ebi.pride.solr.api.client.utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for the arrays of accessions or ids answered by the API
+ */
+public final class JsonStringArrays {
+
+    private JsonStringArrays() {
+    }
+
+    /**
+     * Reads an array of scalar values token by token, without building the whole collection first
+     *
+     * @param parser parser positioned before the array
+     * @param sink   receives each value of the array as a string, null values are skipped
+     * @return false if the body is empty or null
+     * @throws JsonParseException if the body is not an array of scalar values
+     */
+    public static boolean read(JsonParser parser, Consumer<String> sink) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a JSON array of strings but got " + token);
+        }
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of JSON array");
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (!token.isScalarValue()) {
+                throw new JsonParseException(parser, "Expected a string in the JSON array but got " + token);
+            }
+            sink.accept(parser.getValueAsString());
+        }
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package uk.ac.ebi.pride.solr.api.client.utils;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -11,7 +12,14 @@ import java.util.ArrayList;
 public class Utils {
 
     public static ObjectMapper getJacksonObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return getJacksonObjectMapper(new JsonFactory());
+    }
+
+    /**
+     * @param factory JSON, or a binary format factory (Smile, CBOR)
+     */
+    public static ObjectMapper getJacksonObjectMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
         mapper.registerModule(new Jdk8Module());
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
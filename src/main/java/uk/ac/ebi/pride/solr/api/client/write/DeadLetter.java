@@ -0,0 +1,12 @@
+package uk.ac.ebi.pride.solr.api.client.write;
+
+/**
+ * A queued write given up by a {@link WriteBehindQueue}: rejected by the API, not readable any more, or still
+ * failing after {@link WriteBehindConfig#getMaxAttempts()} flushes
+ *
+ * @param delete   true for a delete, false for a save
+ * @param document JSON document of a save, empty for a delete
+ * @param attempts number of flushes that tried to send it
+ */
+public record DeadLetter(boolean delete, String accession, String id, byte[] document, int attempts, Throwable error) {
+}
@@ -0,0 +1,272 @@
+package uk.ac.ebi.pride.solr.api.client.write;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Memory mapped append-only log of the writes of a {@link WriteBehindQueue}. The header holds the sequence number
+ * up to which every write was sent to the API; each record is its body length, the CRC32 of the body, and the body
+ * (type, sequence number, accession, id, JSON document). A zero length or a CRC mismatch marks the end of the log,
+ * so a record torn by a crash is dropped on replay. A lock file next to the log keeps a second queue, in this or
+ * another process, from opening it at the same time.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    static final int MAGIC = 0x50535742; // "PSWB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    private static final int FLUSHED_SEQ_OFFSET = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    record Record(long seq, byte type, String accession, String id, byte[] payload) {
+
+        int size() {
+            return RECORD_HEADER_BYTES + bodySize();
+        }
+
+        int bodySize() {
+            return 1 + 8 + 2 + utf8(accession).length + 2 + utf8(id).length + payload.length;
+        }
+    }
+
+    private final Path file;
+    private final int minSize;
+    private final FileChannel lockChannel;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long flushedSeq;
+    private long lastSeq;
+
+    /**
+     * @param lockChannel lock file held while the log is open, null for a temporary log
+     */
+    private WriteAheadLog(Path file, int minSize, FileChannel lockChannel) {
+        this.file = file;
+        this.minSize = minSize;
+        this.lockChannel = lockChannel;
+    }
+
+    /**
+     * Opens or creates the log
+     *
+     * @param pending receives the records written after the last checkpoint, in log order
+     */
+    static WriteAheadLog open(Path file, int size, List<Record> pending) throws IOException {
+        FileChannel lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Write-behind log " + file + " is already used by another queue");
+        }
+        try {
+            WriteAheadLog log = open(file, size, pending, lockChannel);
+            if (log == null) {
+                throw new IOException("Not a write-behind log: " + file);
+            }
+            return log;
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return null if the file is not a write-behind log
+     */
+    private static WriteAheadLog open(Path file, int size, List<Record> pending, FileChannel lockChannel) throws IOException {
+        WriteAheadLog log = new WriteAheadLog(file, size, lockChannel);
+        boolean exists = Files.exists(file) && Files.size(file) >= HEADER_BYTES;
+        log.map(exists ? Math.max(size, Files.size(file)) : size);
+        if (!exists) {
+            log.buffer.putInt(0, MAGIC);
+            log.buffer.putInt(4, VERSION);
+            log.buffer.putLong(FLUSHED_SEQ_OFFSET, 0);
+            log.buffer.position(HEADER_BYTES);
+            return log;
+        }
+        if (log.buffer.getInt(0) != MAGIC || log.buffer.getInt(4) != VERSION) {
+            log.channel.close();
+            return null;
+        }
+        log.replay(pending);
+        return log;
+    }
+
+    long getLastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * @return false if the record does not fit in the remaining space
+     */
+    boolean tryAppend(Record record, boolean sync) {
+        // room for the record and the zero length marking the end
+        if (buffer.remaining() < record.size() + 4) {
+            return false;
+        }
+        int start = buffer.position();
+        ByteBuffer body = encode(record);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        buffer.position(start + RECORD_HEADER_BYTES);
+        buffer.put(body);
+        buffer.putInt(0);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        // the length goes last, a record is only visible once complete
+        buffer.putInt(start, record.bodySize());
+        buffer.position(buffer.position() - 4);
+        lastSeq = Math.max(lastSeq, record.seq());
+        if (sync) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    /**
+     * Records that every write up to {@code seq} reached the API. If nothing is pending any more, new records are
+     * written from the start of the log again; older ones are ignored on replay as their sequence numbers are lower.
+     */
+    void checkpoint(long seq, boolean nothingPending) {
+        flushedSeq = Math.max(flushedSeq, seq);
+        buffer.putLong(FLUSHED_SEQ_OFFSET, flushedSeq);
+        if (nothingPending) {
+            buffer.position(HEADER_BYTES);
+            buffer.putInt(HEADER_BYTES, 0);
+        }
+    }
+
+    /**
+     * Rewrites the log with only the given records, into a new file that replaces the current one
+     */
+    void compact(Collection<Record> live) throws IOException {
+        long needed = HEADER_BYTES + 4L + live.stream().mapToLong(Record::size).sum();
+        long size = Math.max(minSize, Math.max(buffer.capacity(), needed * 2));
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many pending writes for the write-behind log");
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        WriteAheadLog compacted = new WriteAheadLog(tmp, minSize, null);
+        compacted.map(size);
+        compacted.buffer.putInt(0, MAGIC);
+        compacted.buffer.putInt(4, VERSION);
+        compacted.buffer.putLong(FLUSHED_SEQ_OFFSET, flushedSeq);
+        compacted.buffer.position(HEADER_BYTES);
+        for (Record record : live) {
+            compacted.tryAppend(record, false);
+        }
+        int position = compacted.buffer.position();
+        compacted.closeLog();
+        closeLog();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map(size);
+        buffer.position(position);
+        log.debug("Compacted write-behind log to {} pending writes, {} bytes", live.size(), size);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeLog();
+        if (lockChannel != null) {
+            // releases the lock
+            lockChannel.close();
+        }
+    }
+
+    private void closeLog() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void map(long size) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private void replay(List<Record> pending) {
+        flushedSeq = buffer.getLong(FLUSHED_SEQ_OFFSET);
+        lastSeq = flushedSeq;
+        int position = HEADER_BYTES;
+        int end = position;
+        while (position + RECORD_HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + RECORD_HEADER_BYTES, length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                log.warn("Write-behind log {} ends with a torn record at {}", file, position);
+                break;
+            }
+            Record record = decode(body);
+            position += RECORD_HEADER_BYTES + length;
+            if (record.seq() <= flushedSeq) {
+                // left over from before the log was restarted from the top
+                continue;
+            }
+            pending.add(record);
+            lastSeq = Math.max(lastSeq, record.seq());
+            end = position;
+        }
+        buffer.position(end);
+    }
+
+    private static ByteBuffer encode(Record record) {
+        byte[] accession = utf8(record.accession());
+        byte[] id = utf8(record.id());
+        ByteBuffer body = ByteBuffer.allocate(record.bodySize());
+        body.put(record.type()).putLong(record.seq());
+        body.putShort((short) accession.length).put(accession);
+        body.putShort((short) id.length).put(id);
+        body.put(record.payload());
+        return body.flip();
+    }
+
+    private static Record decode(ByteBuffer body) {
+        byte type = body.get();
+        long seq = body.getLong();
+        String accession = string(body);
+        String id = string(body);
+        byte[] payload = new byte[body.remaining()];
+        body.get(payload);
+        return new Record(seq, type, accession, id.isEmpty() ? null : id, payload);
+    }
+
+    private static String string(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xffff];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
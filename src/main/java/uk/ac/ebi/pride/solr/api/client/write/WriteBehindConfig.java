@@ -0,0 +1,63 @@
+package uk.ac.ebi.pride.solr.api.client.write;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Settings of a {@link WriteBehindQueue}
+ */
+@Getter
+@Builder
+public class WriteBehindConfig {
+
+    /**
+     * Directory of the write-ahead log, created if missing; one queue per directory, enforced by a lock file
+     */
+    private final Path directory;
+
+    /**
+     * Initial size of the memory mapped log; it is compacted when full, and grown if the pending writes alone fill it
+     */
+    @Builder.Default
+    private final int logSize = 16 * 1024 * 1024;
+
+    /**
+     * Max number of projects of one saveAll call
+     */
+    @Builder.Default
+    private final int batchSize = 200;
+
+    /**
+     * Pending writes are sent at least this often, and as soon as a full batch is pending
+     */
+    @Builder.Default
+    private final Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Writers wait once this many accessions are pending, so that a down API can not fill the disk and the heap
+     */
+    @Builder.Default
+    private final int maxPending = 100_000;
+
+    /**
+     * Force every append to disk before acknowledging it; without it an acknowledged write survives a crash of the
+     * process but not of the machine
+     */
+    @Builder.Default
+    private final boolean syncEachWrite = false;
+
+    /**
+     * A write still failing with a retryable error (5xx, 429, I/O) after this many flushes is given up
+     */
+    @Builder.Default
+    private final int maxAttempts = 10;
+
+    /**
+     * Receives the writes given up, besides their line in {@code dead-letters.ndjson} of the directory; may be null
+     */
+    private final Consumer<DeadLetter> deadLetterHandler;
+}
@@ -0,0 +1,417 @@
+package uk.ac.ebi.pride.solr.api.client.write;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.retry.CircuitBreakerOpenException;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryExecutor;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind mode: {@link #save} and {@link #delete} append the write to a local memory mapped log and
+ * return at once; a background task sends the pending writes with saveAll (in batches) and deleteProjectById.
+ * Several writes to the same accession before it is sent are coalesced into the last one. Writes that were not
+ * sent yet are read back from the log when the queue is opened again, e.g. after a crash.
+ * <p>
+ * A batch interrupted by a retryable error (5xx, 429, I/O) is kept and sent again on the next flush, up to
+ * {@link WriteBehindConfig#getMaxAttempts()} times; the client retries on its own in between. Writes the API rejects
+ * otherwise (e.g. a 4xx), or whose document can not be read back, are given up at once: logged, appended to
+ * {@code dead-letters.ndjson} and handed to {@link WriteBehindConfig#getDeadLetterHandler()}.
+ */
+@Slf4j
+public class WriteBehindQueue implements Closeable {
+
+    static final byte SAVE = 1;
+    static final byte DELETE = 2;
+    static final String LOG_FILE = "write-behind.log";
+    static final String DEAD_LETTER_FILE = "dead-letters.ndjson";
+
+    private final SolrProjectClient client;
+    private final WriteBehindConfig config;
+    private final ObjectMapper objectMapper = Utils.getJacksonObjectMapper();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    // by accession, in sequence order
+    private final LinkedHashMap<String, WriteAheadLog.Record> pending = new LinkedHashMap<>();
+    private final Map<String, WriteAheadLog.Record> inFlight = new LinkedHashMap<>();
+    // failed flushes by sequence number, for the writes that were retried at least once
+    private final Map<Long, Integer> attempts = new HashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final WriteAheadLog writeAheadLog;
+    private long seq;
+    private boolean closed;
+
+    private WriteBehindQueue(SolrProjectClient client, WriteBehindConfig config, WriteAheadLog writeAheadLog,
+                             List<WriteAheadLog.Record> replayed) {
+        this.client = client;
+        this.config = config;
+        this.writeAheadLog = writeAheadLog;
+        this.seq = writeAheadLog.getLastSeq();
+        replayed.forEach(record -> {
+            pending.remove(record.accession());
+            pending.put(record.accession(), record);
+        });
+        if (!pending.isEmpty()) {
+            log.info("Replaying {} writes that were not sent before the last shutdown", pending.size());
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("solr-write-behind").factory());
+        long interval = config.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens the queue, replaying the writes not sent before the last shutdown
+     */
+    public static WriteBehindQueue open(SolrProjectClient client, WriteBehindConfig config) throws IOException {
+        Files.createDirectories(config.getDirectory());
+        List<WriteAheadLog.Record> replayed = new ArrayList<>();
+        WriteAheadLog writeAheadLog = WriteAheadLog.open(config.getDirectory().resolve(LOG_FILE), config.getLogSize(), replayed);
+        return new WriteBehindQueue(client, config, writeAheadLog, replayed);
+    }
+
+    /**
+     * Queues a save (upsert by id) of the project, replacing any write of the same accession not sent yet
+     */
+    public void save(PrideSolrProject project) throws IOException, InterruptedException {
+        byte[] document = objectMapper.writeValueAsBytes(project);
+        String id = project.getId() == null ? null : String.valueOf(project.getId());
+        append(SAVE, project.getAccession(), id, document);
+    }
+
+    /**
+     * Queues the delete of a project, replacing any write of the same accession not sent yet
+     */
+    public void delete(String accession, String id) throws IOException, InterruptedException {
+        if (id == null) {
+            throw new IllegalArgumentException("Deleting " + accession + " needs the project id");
+        }
+        append(DELETE, accession, id, new byte[0]);
+    }
+
+    /**
+     * @return number of accessions with a write not yet acknowledged by the API
+     */
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends every pending write now, on the calling thread
+     *
+     * @throws RuntimeException the error of the first batch that failed; its writes stay queued
+     */
+    public void flush() throws InterruptedException {
+        flushLock.lockInterruptibly();
+        try {
+            while (flushBatch()) {
+                // next batch
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background flush, sends what is pending and closes the log. Writes that could not be sent stay in
+     * the log for the next time the queue is opened.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("{} writes left in the write-behind log: {}", getPendingCount(), e.getMessage());
+        } finally {
+            lock.lock();
+            try {
+                writeAheadLog.close();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void append(byte type, String accession, String id, byte[] payload) throws IOException, InterruptedException {
+        if (accession == null) {
+            throw new IllegalArgumentException("Queued writes need an accession");
+        }
+        int pendingCount;
+        lock.lockInterruptibly();
+        try {
+            while (!closed && pending.size() + inFlight.size() >= config.getMaxPending() && !pending.containsKey(accession)) {
+                notFull.await();
+            }
+            if (closed) {
+                throw new IllegalStateException("Write-behind queue is closed");
+            }
+            WriteAheadLog.Record record = new WriteAheadLog.Record(++seq, type, accession, id, payload);
+            if (!writeAheadLog.tryAppend(record, config.isSyncEachWrite())) {
+                List<WriteAheadLog.Record> live = new ArrayList<>(inFlight.values());
+                live.addAll(pending.values());
+                live.add(record);
+                writeAheadLog.compact(live);
+            }
+            pending.remove(accession);
+            pending.put(accession, record);
+            pendingCount = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        if (pendingCount >= config.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                // closed meanwhile; the write is in the log and close() sends what is pending
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            while (flushBatch()) {
+                // next batch
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed, {} writes kept for the next one: {}", getPendingCount(), e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the oldest pending writes: one saveAll for the saves, one call per delete. If the API rejects the saveAll
+     * for another reason than a retryable error, the saves are sent one by one to find the rejected ones.
+     *
+     * @return false if nothing was pending
+     */
+    private boolean flushBatch() throws InterruptedException {
+        List<WriteAheadLog.Record> batch = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<WriteAheadLog.Record> it = pending.values().iterator();
+            while (it.hasNext() && batch.size() < config.getBatchSize()) {
+                WriteAheadLog.Record record = it.next();
+                it.remove();
+                inFlight.put(record.accession(), record);
+                batch.add(record);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        List<WriteAheadLog.Record> sent = new ArrayList<>();
+        Map<WriteAheadLog.Record, Exception> rejected = new LinkedHashMap<>();
+        RuntimeException retryable = null;
+        try {
+            List<WriteAheadLog.Record> saves = new ArrayList<>();
+            List<PrideSolrProject> projects = new ArrayList<>();
+            for (WriteAheadLog.Record record : batch) {
+                if (record.type() == SAVE) {
+                    try {
+                        projects.add(objectMapper.readValue(record.payload(), PrideSolrProject.class));
+                        saves.add(record);
+                    } catch (IOException e) {
+                        rejected.put(record, e);
+                    }
+                }
+            }
+            if (!projects.isEmpty()) {
+                try {
+                    client.saveAll(projects);
+                    sent.addAll(saves);
+                } catch (JsonProcessingException | RuntimeException e) {
+                    if (isRetryable(e)) {
+                        throw (RuntimeException) e;
+                    }
+                    for (int i = 0; i < saves.size(); i++) {
+                        try {
+                            client.saveAll(List.of(projects.get(i)));
+                            sent.add(saves.get(i));
+                        } catch (JsonProcessingException | RuntimeException single) {
+                            if (isRetryable(single)) {
+                                throw (RuntimeException) single;
+                            }
+                            rejected.put(saves.get(i), single);
+                        }
+                    }
+                }
+            }
+            for (WriteAheadLog.Record record : batch) {
+                if (record.type() == DELETE) {
+                    try {
+                        client.deleteProjectById(record.id());
+                        sent.add(record);
+                    } catch (JsonProcessingException | RuntimeException e) {
+                        if (isRetryable(e)) {
+                            throw (RuntimeException) e;
+                        }
+                        rejected.put(record, e);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            retryable = e;
+            throw e;
+        } finally {
+            completed(batch, sent, rejected, retryable);
+        }
+        return true;
+    }
+
+    /**
+     * @return true for errors that may go away by themselves: server errors, I/O failures, throttling, open circuit
+     */
+    static boolean isRetryable(Exception error) {
+        return RetryExecutor.isServerDown(error)
+                || error instanceof CircuitBreakerOpenException
+                || error instanceof HttpClientErrorException clientError
+                && (clientError.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS || clientError.getStatusCode() == HttpStatus.REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Drops the sent and rejected writes, puts the others back in front of the queue unless a newer write of the same
+     * accession came in meanwhile or they ran out of attempts, and moves the checkpoint to just before the oldest
+     * write still pending
+     *
+     * @param retryable error that interrupted the batch, null if every write was either sent or rejected
+     */
+    private void completed(List<WriteAheadLog.Record> batch, List<WriteAheadLog.Record> sent,
+                           Map<WriteAheadLog.Record, Exception> rejected, RuntimeException retryable) {
+        List<DeadLetter> deadLetters = new ArrayList<>();
+        lock.lock();
+        try {
+            batch.forEach(record -> inFlight.remove(record.accession()));
+            LinkedHashMap<String, WriteAheadLog.Record> requeued = new LinkedHashMap<>();
+            for (WriteAheadLog.Record record : batch) {
+                Integer previous = attempts.remove(record.seq());
+                int attempt = previous == null ? 1 : previous + 1;
+                if (rejected.containsKey(record)) {
+                    deadLetters.add(deadLetter(record, attempt, rejected.get(record)));
+                    continue;
+                }
+                if (sent.contains(record) || pending.containsKey(record.accession())) {
+                    continue;
+                }
+                if (retryable != null && attempt >= config.getMaxAttempts()) {
+                    deadLetters.add(deadLetter(record, attempt, retryable));
+                    continue;
+                }
+                if (retryable != null) {
+                    attempts.put(record.seq(), attempt);
+                }
+                requeued.put(record.accession(), record);
+            }
+            if (!requeued.isEmpty()) {
+                requeued.putAll(pending);
+                pending.clear();
+                pending.putAll(requeued);
+            }
+            long oldest = seq + 1;
+            for (WriteAheadLog.Record record : pending.values()) {
+                oldest = Math.min(oldest, record.seq());
+            }
+            for (WriteAheadLog.Record record : inFlight.values()) {
+                oldest = Math.min(oldest, record.seq());
+            }
+            writeAheadLog.checkpoint(oldest - 1, pending.isEmpty() && inFlight.isEmpty());
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        deadLetters.forEach(this::giveUp);
+    }
+
+    private static DeadLetter deadLetter(WriteAheadLog.Record record, int attempts, Exception error) {
+        return new DeadLetter(record.type() == DELETE, record.accession(), record.id(), record.payload(), attempts, error);
+    }
+
+    /**
+     * Logs the write, appends it to the dead letter file and hands it to the handler of the config
+     */
+    private void giveUp(DeadLetter deadLetter) {
+        log.error("Giving up {} of {} after {} attempts: {}", deadLetter.delete() ? "delete" : "save",
+                deadLetter.accession(), deadLetter.attempts(), deadLetter.error().toString());
+        try (OutputStream out = Files.newOutputStream(config.getDirectory().resolve(DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", deadLetter.delete() ? "delete" : "save");
+            generator.writeStringField("accession", deadLetter.accession());
+            generator.writeStringField("id", deadLetter.id());
+            generator.writeNumberField("attempts", deadLetter.attempts());
+            generator.writeStringField("error", deadLetter.error().toString());
+            if (deadLetter.document().length > 0) {
+                generator.writeFieldName("document");
+                generator.writeRawValue(new String(deadLetter.document(), StandardCharsets.UTF_8));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            log.error("Could not write the dead letter of {}", deadLetter.accession(), e);
+        }
+        if (config.getDeadLetterHandler() != null) {
+            try {
+                config.getDeadLetterHandler().accept(deadLetter);
+            } catch (RuntimeException e) {
+                log.error("Dead letter handler failed for {}", deadLetter.accession(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class BulkIndexerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private final List<Integer> requestBytes = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private SolrApiRestClient restClient;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // rejects the whole request if a project has no accession
+        server.createContext("/project/saveAll", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            requestBytes.add(body.length);
+            List<String> accessions = new ArrayList<>();
+            for (JsonNode project : objectMapper.readTree(body)) {
+                accessions.add(project.path("accession").textValue());
+            }
+            if (accessions.contains(null)) {
+                exchange.sendResponseHeaders(400, -1);
+            } else {
+                stored.addAll(accessions);
+                exchange.sendResponseHeaders(200, -1);
+            }
+            exchange.close();
+        });
+        server.start();
+        restClient = new SolrApiRestClient(SolrApiClientConfig.of("http://localhost:" + server.getAddress().getPort(),
+                "key", "value", "test"));
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        restClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void chunksAreClosedAtTheMaxCount() throws Exception {
+        BulkIndexReport report = new SolrProjectClient(restClient).saveAllInChunks(projects(25, 10),
+                BulkIndexOptions.builder().maxChunkSize(10).build());
+
+        Assertions.assertTrue(report.isSuccessful());
+        Assertions.assertEquals(List.of(10, 10, 5), report.getChunks().stream().map(c -> c.getProjects().size()).toList());
+        Assertions.assertEquals(3, requestBytes.size());
+        Assertions.assertEquals(25, stored.size());
+    }
+
+    @Test
+    void chunksAreClosedAtTheMaxBytes() throws Exception {
+        BulkIndexReport report = new SolrProjectClient(restClient).saveAllInChunks(projects(20, 1000),
+                BulkIndexOptions.builder().maxChunkBytes(4096).build());
+
+        Assertions.assertTrue(report.isSuccessful());
+        Assertions.assertTrue(report.getChunks().size() >= 5);
+        for (BulkIndexReport.ChunkResult chunk : report.getChunks()) {
+            Assertions.assertTrue(chunk.getBytes() <= 4096, "chunk of " + chunk.getBytes() + " bytes");
+        }
+        // the reported sizes are the sizes of the request bodies
+        Assertions.assertEquals(report.getTotalBytes(), requestBytes.stream().mapToLong(Integer::longValue).sum());
+        Assertions.assertEquals(20, stored.size());
+    }
+
+    @Test
+    void oversizedProjectIsSentAloneAndReported() throws Exception {
+        List<PrideSolrProject> projects = projects(3, 100);
+        projects.get(1).setTitle("t".repeat(5000));
+        BulkIndexReport report = new SolrProjectClient(restClient).saveAllInChunks(projects,
+                BulkIndexOptions.builder().maxChunkBytes(4096).build());
+
+        Assertions.assertTrue(report.isSuccessful());
+        Assertions.assertEquals(List.of(1, 1, 1), report.getChunks().stream().map(c -> c.getProjects().size()).toList());
+        Assertions.assertEquals(1, report.getOversizedChunks().size());
+        BulkIndexReport.ChunkResult oversized = report.getOversizedChunks().get(0);
+        Assertions.assertEquals(1, oversized.getIndex());
+        Assertions.assertEquals(oversized.getBytes() - 4096, oversized.getOvershootBytes());
+        Assertions.assertEquals(3, stored.size());
+    }
+
+    @Test
+    void failedChunkIsReportedWithItsProjects() throws Exception {
+        List<PrideSolrProject> projects = projects(10, 10);
+        // rejected by the server, failing the second chunk
+        projects.get(4).setAccession(null);
+        BulkIndexReport report = new SolrProjectClient(restClient).saveAllInChunks(projects,
+                BulkIndexOptions.builder().maxChunkSize(3).build());
+
+        Assertions.assertFalse(report.isSuccessful());
+        Assertions.assertEquals(4, report.getChunks().size());
+        Assertions.assertEquals(1, report.getFailedChunks().size());
+        BulkIndexReport.ChunkResult failed = report.getFailedChunks().get(0);
+        Assertions.assertEquals(1, failed.getIndex());
+        Assertions.assertNotNull(failed.getError());
+        Assertions.assertEquals(projects.subList(3, 6), report.getFailedProjects());
+        Assertions.assertEquals(7, stored.size());
+    }
+
+    /**
+     * @param titleLength length of the title, to control the serialized size
+     */
+    private static List<PrideSolrProject> projects(int count, int titleLength) {
+        List<PrideSolrProject> projects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PrideSolrProject project = new PrideSolrProject();
+            project.setId("id" + i);
+            project.setAccession(String.format("PXD%06d", i));
+            project.setTitle("t".repeat(titleLength));
+            projects.add(project);
+        }
+        return projects;
+    }
+}
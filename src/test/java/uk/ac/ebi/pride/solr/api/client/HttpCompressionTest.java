@@ -0,0 +1,53 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+class HttpCompressionTest {
+
+    @Test
+    void gzipBodyIsDecompressedTransparently() throws Exception {
+        String json = "[{\"accession\":\"PXD000001\"}]".repeat(100);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        HttpCompression.gzip(out -> out.write(json.getBytes(StandardCharsets.UTF_8))).writeTo(compressed);
+        Assertions.assertTrue(compressed.size() < json.length());
+
+        MockClientHttpResponse response = new MockClientHttpResponse(compressed.toByteArray(), HttpStatus.OK);
+        response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, HttpCompression.GZIP);
+        String body = StreamUtils.copyToString(HttpCompression.decompressing(response).getBody(), StandardCharsets.UTF_8);
+        Assertions.assertEquals(json, body);
+    }
+
+    @Test
+    void onlyConfiguredEndpointsAboveThresholdAreCompressed() {
+        CompressionConfig config = CompressionConfig.builder().requestCompression(true).minRequestBytes(1024).build();
+        Assertions.assertTrue(config.shouldCompress("/project/saveAll", -1));
+        Assertions.assertTrue(config.shouldCompress("/project/save", 4096));
+        Assertions.assertFalse(config.shouldCompress("/project/save", 100));
+        Assertions.assertFalse(config.shouldCompress("/project/findByKeyword", 4096));
+        Assertions.assertFalse(CompressionConfig.defaults().shouldCompress("/project/saveAll", -1));
+    }
+
+    @Test
+    void entityBodiesAreOnlyBufferedUpToTheThreshold() throws Exception {
+        ObjectMapper mapper = Utils.getJacksonObjectMapper();
+        StreamingHttpOutputMessage.Body small = out -> mapper.writeValue(StreamUtils.nonClosing(out), List.of("PXD000001"));
+        Assertions.assertEquals("[\"PXD000001\"]", new String(HttpCompression.bufferIfSmaller(small, 1024), StandardCharsets.UTF_8));
+
+        List<String> accessions = IntStream.range(0, 1000).mapToObj(i -> "PXD" + (100000 + i)).toList();
+        StreamingHttpOutputMessage.Body large = out -> mapper.writeValue(StreamUtils.nonClosing(out), accessions);
+        Assertions.assertNull(HttpCompression.bufferIfSmaller(large, 1024));
+    }
+}
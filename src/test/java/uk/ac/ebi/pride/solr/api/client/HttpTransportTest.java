@@ -0,0 +1,84 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class HttpTransportTest {
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // echoes the saved project
+        server.createContext("/project/save", exchange -> respond(exchange, 200, exchange.getRequestBody().readAllBytes()));
+        server.createContext("/project/saveAll", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            respond(exchange, 200, null);
+        });
+        server.createContext("/project/findAllAccessions", exchange ->
+                respond(exchange, 200, "[\"PXD000001\",\"PXD000002\"]".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/project/deleteProjectById", exchange -> respond(exchange, 204, null));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(HttpTransport.class)
+    void everyTransportTalksToTheApi(HttpTransport transport) throws Exception {
+        SolrApiRestClient restClient = new SolrApiRestClient(SolrApiClientConfig
+                .of("http://localhost:" + server.getAddress().getPort(), "key", "value", "test").toBuilder()
+                .transport(transport)
+                .build());
+        try {
+            SolrProjectClient client = new SolrProjectClient(restClient);
+            PrideSolrProject project = new PrideSolrProject();
+            project.setAccession("PXD000001");
+            project.setTitle("title of PXD000001");
+
+            Assertions.assertEquals("title of PXD000001", client.save(project).getTitle());
+            client.saveAll(List.of(project));
+            // DELETE answers 204 without a body
+            client.deleteProjectById("id1");
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(Set.of("PXD000001", "PXD000002"), client.findAllAccessions().orElseThrow());
+            }
+            if (transport != HttpTransport.SIMPLE) {
+                // sequential calls share one kept-alive connection
+                Assertions.assertEquals(1, clientPorts.size());
+            }
+        } finally {
+            restClient.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+}
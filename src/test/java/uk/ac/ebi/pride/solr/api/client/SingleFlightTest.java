@@ -0,0 +1,46 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(singleFlight.callAsync("findByAccession:PXD000001", () -> {
+                executions.incrementAndGet();
+                return response;
+            }));
+        }
+        Assertions.assertEquals(1, singleFlight.inFlightCount());
+        response.complete("PXD000001");
+        for (CompletableFuture<String> result : results) {
+            Assertions.assertEquals("PXD000001", result.get());
+        }
+        Assertions.assertEquals(1, executions.get());
+        Assertions.assertEquals(0, singleFlight.inFlightCount());
+
+        // once completed, the next call goes to the server again
+        Assertions.assertEquals("again", singleFlight.call("findByAccession:PXD000001", () -> "again"));
+    }
+
+    @Test
+    void failureIsSharedAndNotCached() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        Assertions.assertThrows(IllegalStateException.class, () -> singleFlight.call("findAllIds", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        Assertions.assertEquals("ok", singleFlight.call("findAllIds", () -> "ok"));
+    }
+}
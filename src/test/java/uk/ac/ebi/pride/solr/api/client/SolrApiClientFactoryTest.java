@@ -0,0 +1,18 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class SolrApiClientFactoryTest {
+
+    @Test
+    void baseUrlIsRequired() {
+        IllegalArgumentException error = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SolrApiClientFactory(SolrApiClientConfig.of(null, "key", "value", "test")));
+        Assertions.assertEquals("apiBaseUrl or apiBaseUrls is required", error.getMessage());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SolrApiClientFactory(List.of(), "key", "value", "test"));
+    }
+}
@@ -0,0 +1,132 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SolrProjectAsyncClientTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private SolrApiRestClient restClient;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        // held until the test releases it, echoes the saved project
+        server.createContext("/project/save", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            respond(exchange, 200, exchange.getRequestBody().readAllBytes());
+        });
+        server.createContext("/project/findByAccession", exchange -> {
+            boolean found = "accession=PXD000001".equals(exchange.getRequestURI().getQuery());
+            respond(exchange, 200, found ? "{\"accession\":\"PXD000001\",\"title\":\"A title\"}".getBytes(StandardCharsets.UTF_8) : null);
+        });
+        server.createContext("/project/findAllAccessions", exchange ->
+                respond(exchange, 200, "[\"PXD000001\"]".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/project/upsert", exchange -> respond(exchange, 400, null));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        release.countDown();
+        if (restClient != null) {
+            restClient.close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void completesCallsWithTheirResults() {
+        SolrProjectAsyncClient client = client(64);
+
+        CompletableFuture<Optional<PrideSolrProject>> found = client.findByAccession("PXD000001");
+        CompletableFuture<Optional<PrideSolrProject>> missing = client.findByAccession("PXD999999");
+        Assertions.assertEquals("A title", found.join().orElseThrow().getTitle());
+        Assertions.assertTrue(missing.join().isEmpty());
+        Assertions.assertEquals(1, client.findAllAccessions().join().orElseThrow().size());
+    }
+
+    @Test
+    void concurrentCallsAreBoundedByMaxConcurrency() throws Exception {
+        SolrProjectAsyncClient client = client(2);
+        List<CompletableFuture<PrideSolrProject>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            PrideSolrProject project = new PrideSolrProject();
+            project.setAccession("PXD00000" + i);
+            calls.add(client.save(project));
+        }
+        // the calls are returned at once, the ones beyond the limit wait for a slot
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((inFlight.get() < 2 || client.getQueueLength() < 4) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, inFlight.get());
+        Assertions.assertEquals(4, client.getQueueLength());
+        Assertions.assertTrue(calls.stream().noneMatch(CompletableFuture::isDone));
+
+        release.countDown();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        Assertions.assertEquals(2, maxInFlight.get());
+        Assertions.assertEquals(0, client.getQueueLength());
+    }
+
+    @Test
+    void failuresCompleteExceptionally() {
+        SolrProjectAsyncClient client = client(64);
+        CompletableFuture<PrideSolrProject> call = client.upsert(new PrideSolrProject());
+
+        CompletionException error = Assertions.assertThrows(CompletionException.class, call::join);
+        Assertions.assertInstanceOf(HttpClientErrorException.class, error.getCause());
+    }
+
+    private SolrProjectAsyncClient client(int maxConcurrency) {
+        restClient = new SolrApiRestClient(SolrApiClientConfig
+                .of("http://localhost:" + server.getAddress().getPort(), "key", "value", "test").toBuilder()
+                .asyncMaxConcurrency(maxConcurrency)
+                .build());
+        return new SolrProjectAsyncClient(restClient, new SolrProjectClient(restClient));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+}
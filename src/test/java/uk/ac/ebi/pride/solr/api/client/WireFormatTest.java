@@ -0,0 +1,79 @@
+package uk.ac.ebi.pride.solr.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class WireFormatTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper smileMapper = WireFormat.SMILE.createMapper();
+    private final AtomicInteger rejectedBodies = new AtomicInteger();
+    private HttpServer server;
+    private SolrApiClientFactory factory;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // answers Smile when asked for it, but only accepts JSON request bodies
+        server.createContext("/project/findAllAccessions", exchange -> {
+            boolean smile = String.valueOf(exchange.getRequestHeaders().getFirst("Accept")).startsWith(SMILE);
+            byte[] body = smile ? smileMapper.writeValueAsBytes(List.of("PXD000001", "PXD000002"))
+                    : "[\"PXD000001\"]".getBytes();
+            exchange.getResponseHeaders().set("Content-Type", smile ? SMILE : "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/project/save", exchange -> {
+            if (SMILE.equals(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+                rejectedBodies.incrementAndGet();
+                exchange.sendResponseHeaders(415, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        factory = new SolrApiClientFactory(SolrApiClientConfig.builder()
+                .apiBaseUrl("http://localhost:" + server.getAddress().getPort())
+                .apiKeyName("key").apiKeyValue("value").appName("test")
+                .wireFormat(WireFormat.SMILE)
+                .build());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void binaryResponsesAreDecodedByContentType() throws Exception {
+        Assertions.assertEquals(Set.of("PXD000001", "PXD000002"), factory.getSolrProjectClient().findAllAccessions().orElseThrow());
+    }
+
+    @Test
+    void rejectedBinaryBodiesFallBackToJson() throws Exception {
+        PrideSolrProject project = new PrideSolrProject();
+        project.setAccession("PXD000001");
+        SolrProjectClient client = factory.getSolrProjectClient();
+
+        Assertions.assertEquals("PXD000001", client.save(project).getAccession());
+        Assertions.assertEquals("PXD000001", client.save(project).getAccession());
+        Assertions.assertEquals(1, rejectedBodies.get());
+    }
+}
@@ -0,0 +1,86 @@
+package uk.ac.ebi.pride.solr.api.client.autoconfigure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectAsyncClient;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.WarmUpReport;
+import uk.ac.ebi.pride.solr.api.client.WireFormat;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolrApiClientAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SolrApiClientAutoConfiguration.class));
+
+    private InMemorySolrApiServer server;
+
+    private ApplicationContextRunner withServer() {
+        return runner.withPropertyValues("pride.solr.api.base-url=" + server.getBaseUrl(),
+                "pride.solr.api.key-name=x-api-key", "pride.solr.api.key-value=secret", "pride.solr.api.app-name=test");
+    }
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = InMemorySolrApiServer.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void backsOffWithoutBaseUrl() {
+        runner.run(context -> assertFalse(context.containsBean("solrApiClientFactory")));
+    }
+
+    @Test
+    void bindsPropertiesAndClosesFactoryWithContext() {
+        AtomicReference<SolrApiClientFactory> factory = new AtomicReference<>();
+        withServer().withPropertyValues("pride.solr.api.wire-format=smile",
+                        "pride.solr.api.max-connections=7")
+                .withBean(SolrApiClientConfigCustomizer.class, () -> builder -> builder.coalesceRequests(true))
+                .run(context -> {
+                    SolrApiClientProperties properties = context.getBean(SolrApiClientProperties.class);
+                    assertEquals(WireFormat.SMILE, properties.getWireFormat());
+                    assertEquals(7, properties.getMaxConnections());
+                    factory.set(context.getBean(SolrApiClientFactory.class));
+                    assertSame(factory.get().getSolrProjectClient(), context.getBean(SolrProjectClient.class));
+                    assertSame(factory.get().getSolrProjectAsyncClient(), context.getBean(SolrProjectAsyncClient.class));
+                    assertTrue(context.getBean(SolrProjectClient.class).findByAccession("PXD999999").isEmpty());
+                    assertFalse(context.containsBean("solrApiClientWarmUp"));
+                });
+        assertTrue(factory.get().isClosed());
+        assertThrows(IllegalStateException.class, factory.get()::getSolrProjectClient);
+    }
+
+    @Test
+    void warmsUpAtStartup() {
+        withServer().withPropertyValues("pride.solr.api.warm-up.enabled=true", "pride.solr.api.warm-up.connections=3")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertEquals(3, server.getRequestCount("/project/findByAccession"));
+                });
+    }
+
+    @Test
+    void warmUpReportsUnreachableNodes() throws Exception {
+        String baseUrl = server.getBaseUrl();
+        server.close();
+        try (SolrApiClientFactory factory = new SolrApiClientFactory(baseUrl, "x-api-key", "secret", "test")) {
+            WarmUpReport report = factory.warmUp(2);
+            assertEquals(1, report.nodes());
+            assertEquals(0, report.probes());
+            assertEquals(2, report.failedProbes());
+        }
+    }
+}
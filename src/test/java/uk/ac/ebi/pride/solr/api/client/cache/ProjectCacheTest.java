@@ -0,0 +1,96 @@
+package uk.ac.ebi.pride.solr.api.client.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.IOException;
+
+class ProjectCacheTest {
+
+    private final ObjectMapper objectMapper = Utils.getJacksonObjectMapper();
+
+    @Test
+    void readThroughAndWriteThrough() throws IOException {
+        ProjectCache cache = new ProjectCache(ProjectCacheConfig.defaults(), objectMapper);
+        Assertions.assertNull(cache.get("PXD000001"));
+
+        PrideSolrProject project = project("id1", "PXD000001");
+        cache.putFound(cache.stamp(), "PXD000001", objectMapper.writeValueAsBytes(project), project);
+        ProjectCache.Hit hit = cache.get("PXD000001");
+        Assertions.assertNotNull(hit);
+        Assertions.assertEquals("PXD000001", hit.project().get().getAccession());
+        Assertions.assertNotSame(project, hit.project().get());
+
+        // the accession of id1 changes: the old accession must not be served anymore
+        PrideSolrProject renamed = project("id1", "PXD000002");
+        cache.refresh(renamed, objectMapper.writeValueAsBytes(renamed));
+        Assertions.assertNull(cache.get("PXD000001"));
+        Assertions.assertEquals("PXD000002", cache.get("PXD000002").project().get().getAccession());
+
+        cache.invalidateById("id1");
+        Assertions.assertNull(cache.get("PXD000002"));
+
+        ProjectCacheStats stats = cache.stats();
+        Assertions.assertEquals(2, stats.hitCount());
+        Assertions.assertEquals(3, stats.missCount());
+        Assertions.assertEquals(2, stats.invalidationCount());
+    }
+
+    @Test
+    void negativeCachingAndStaleReads() throws IOException {
+        ProjectCache cache = new ProjectCache(ProjectCacheConfig.defaults(), objectMapper);
+        cache.putNotFound(cache.stamp(), "PXD000003");
+        Assertions.assertTrue(cache.get("PXD000003").project().isEmpty());
+        Assertions.assertEquals(1, cache.stats().negativeHitCount());
+
+        // a read that started before a write must not be cached
+        long stamp = cache.stamp();
+        PrideSolrProject project = project("id3", "PXD000003");
+        cache.refresh(project, objectMapper.writeValueAsBytes(project));
+        cache.putNotFound(stamp, "PXD000003");
+        Assertions.assertTrue(cache.get("PXD000003").project().isPresent());
+    }
+
+    @Test
+    void onlyWritesToTheSameProjectDropAReadInFlight() throws IOException {
+        ProjectCache cache = new ProjectCache(ProjectCacheConfig.defaults(), objectMapper);
+        PrideSolrProject project = project("id4", "PXD000004");
+        byte[] json = objectMapper.writeValueAsBytes(project);
+
+        long stamp = cache.stamp();
+        cache.invalidate(project("id5", "PXD000005"));
+        cache.invalidateById("id6");
+        cache.putFound(stamp, "PXD000004", json, project);
+        Assertions.assertNotNull(cache.get("PXD000004"));
+
+        // written by id while read by accession, e.g. the accession of the project changed
+        cache.invalidateAll();
+        stamp = cache.stamp();
+        cache.invalidateById("id4");
+        cache.putFound(stamp, "PXD000004", json, project);
+        Assertions.assertNull(cache.get("PXD000004"));
+    }
+
+    @Test
+    void weightLimitEvicts() throws IOException {
+        ProjectCache cache = new ProjectCache(ProjectCacheConfig.builder().maximumWeightBytes(2_000).build(), objectMapper);
+        for (int i = 0; i < 100; i++) {
+            PrideSolrProject project = project("id" + i, String.format("PXD%06d", i));
+            cache.putFound(cache.stamp(), project.getAccession(), objectMapper.writeValueAsBytes(project), project);
+        }
+        cache.get("PXD000099");
+        ProjectCacheStats stats = cache.stats();
+        Assertions.assertTrue(stats.weightBytes() <= 2_000);
+        Assertions.assertTrue(stats.evictionCount() > 0);
+    }
+
+    private static PrideSolrProject project(String id, String accession) {
+        PrideSolrProject project = new PrideSolrProject();
+        project.setId(id);
+        project.setAccession(accession);
+        return project;
+    }
+}
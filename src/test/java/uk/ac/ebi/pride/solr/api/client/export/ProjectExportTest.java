@@ -0,0 +1,178 @@
+package uk.ac.ebi.pride.solr.api.client.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures.factory;
+import static uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures.project;
+
+class ProjectExportTest {
+
+    @Test
+    void fetchesAheadWithinPrefetchAndParallelism() {
+        List<String> accessions = IntStream.range(0, 20).mapToObj(i -> "PXD0000" + (10 + i)).toList();
+        Map<String, CompletableFuture<Optional<PrideSolrProject>>> calls = new ConcurrentHashMap<>();
+        AtomicBoolean answerAtOnce = new AtomicBoolean();
+        ExportOptions options = ExportOptions.builder().parallelism(2).prefetch(4).build();
+        try (ProjectExportIterator iterator = new ProjectExportIterator(accessions.iterator(), accessions.size(), accession -> {
+            CompletableFuture<Optional<PrideSolrProject>> call = calls.computeIfAbsent(accession, a -> new CompletableFuture<>());
+            if (answerAtOnce.get()) {
+                call.complete(Optional.of(project(accession)));
+            }
+            return call;
+        }, options)) {
+            Assertions.assertEquals(2, calls.size());
+
+            // each completion starts a waiting fetch, but never beyond the prefetch window
+            calls.get("PXD000011").complete(Optional.of(project("PXD000011")));
+            Assertions.assertEquals(3, calls.size());
+            calls.get("PXD000012").complete(Optional.of(project("PXD000012")));
+            Assertions.assertEquals(4, calls.size());
+            calls.get("PXD000013").complete(Optional.empty());
+            Assertions.assertEquals(4, calls.size());
+
+            calls.get("PXD000010").complete(Optional.of(project("PXD000010")));
+            Assertions.assertEquals("PXD000010", iterator.next().getAccession());
+            Assertions.assertEquals("PXD000011", iterator.next().getAccession());
+            Assertions.assertEquals("PXD000012", iterator.next().getAccession());
+            // 3 consumed, 3 more fetching and the fourth of the window waiting for a slot
+            Assertions.assertEquals(6, calls.size());
+
+            answerAtOnce.set(true);
+            calls.forEach((accession, call) -> call.complete(Optional.of(project(accession))));
+            List<String> rest = new ArrayList<>();
+            iterator.forEachRemaining(project -> rest.add(project.getAccession()));
+            Assertions.assertEquals(accessions.subList(4, 20), rest);
+            Assertions.assertEquals(19, iterator.getExported());
+            Assertions.assertEquals(1, iterator.getSkipped());
+        }
+    }
+
+    @Test
+    void exportsWholeArchiveAsNdjson() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = factory(server)) {
+            List<PrideSolrProject> projects = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                projects.add(project("PXD0001" + (10 + i)));
+            }
+            server.seed(projects);
+            SolrProjectClient client = factory.getSolrProjectClient();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long written = client.exportAllAsNdjson(out, ExportOptions.builder().parallelism(4).prefetch(8).build());
+
+            Assertions.assertEquals(50, written);
+            String ndjson = out.toString(StandardCharsets.UTF_8);
+            Assertions.assertTrue(ndjson.endsWith("\n"));
+            ObjectMapper mapper = new ObjectMapper();
+            List<String> exported = new ArrayList<>();
+            for (String line : ndjson.split("\n")) {
+                JsonNode project = mapper.readTree(line);
+                exported.add(project.path("accession").asText());
+            }
+            Assertions.assertEquals(projects.stream().map(PrideSolrProject::getAccession).sorted().toList(), exported);
+            Assertions.assertEquals(50, server.getRequestCount("/project/findByAccession"));
+
+            try (var stream = client.exportAll(ExportOptions.defaults()).stream()) {
+                Assertions.assertEquals(50, stream.map(PrideSolrProject::getAccession).collect(Collectors.toSet()).size());
+            }
+        }
+    }
+
+    @Test
+    void publisherHonoursDemand() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = factory(server)) {
+            List<PrideSolrProject> projects = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                projects.add(project("PXD0002" + (10 + i)));
+            }
+            server.seed(projects);
+            SolrProjectClient client = factory.getSolrProjectClient();
+            ExportOptions options = ExportOptions.builder().parallelism(2).prefetch(4).build();
+
+            // delivered on the calling thread: once request() returns, every requested project has been delivered
+            ProjectExportPublisher publisher = new ProjectExportPublisher(() -> client.exportAll(options), Runnable::run);
+            List<String> received = new ArrayList<>();
+            Flow.Subscription[] subscription = new Flow.Subscription[1];
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription[0] = s;
+                }
+
+                @Override
+                public void onNext(PrideSolrProject item) {
+                    received.add(item.getAccession());
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    Assertions.fail(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    Assertions.fail("Completed without demand");
+                }
+            });
+            // nothing is listed before the first request
+            Assertions.assertEquals(0, server.getRequestCount("/project/findAllAccessions"));
+
+            subscription[0].request(3);
+            Assertions.assertEquals(3, received.size());
+            // 3 delivered, at most 4 more fetched ahead
+            Assertions.assertEquals(1, server.getRequestCount("/project/findAllAccessions"));
+            Assertions.assertTrue(server.getRequestCount("/project/findByAccession") <= 7);
+            subscription[0].cancel();
+
+            CountDownLatch completed = new CountDownLatch(1);
+            long[] count = new long[1];
+            client.exportPublisher(options).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    s.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(PrideSolrProject item) {
+                    count[0]++;
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    Assertions.fail(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            Assertions.assertTrue(completed.await(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(100, count[0]);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package uk.ac.ebi.pride.solr.api.client.limit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void growsWhileLatencyIsFlatAndBacksOffOnOverload() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig.builder()
+                .initialLimit(4).maxLimit(64).build());
+        runBatch(limiter, 4, 10 * MILLI);
+        Assertions.assertEquals(8, limiter.getLimit());
+        for (int i = 0; i < 20; i++) {
+            runBatch(limiter, limiter.getLimit(), 10 * MILLI);
+        }
+        Assertions.assertEquals(64, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.onDropped();
+        Assertions.assertEquals(57, limiter.getLimit());
+        // latency far above the usual 10 ms
+        limiter.acquire();
+        limiter.onSuccess(100 * MILLI);
+        Assertions.assertTrue(limiter.getLimit() <= 57);
+        Assertions.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void callsOverTheLimitWait() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig.builder()
+                .initialLimit(1).build());
+        limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        while (limiter.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+        Assertions.assertEquals(1, acquired.getCount());
+        limiter.onIgnored();
+        Assertions.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        Assertions.assertEquals(0, limiter.getQueueDepth());
+        Assertions.assertEquals(1, limiter.getInFlight());
+        Assertions.assertTrue(limiter.appliesTo("/project/saveAll"));
+        Assertions.assertFalse(limiter.appliesTo("/project/findByAccession"));
+    }
+
+    private static void runBatch(AdaptiveConcurrencyLimiter limiter, int calls, long latencyNanos) throws InterruptedException {
+        for (int i = 0; i < calls; i++) {
+            limiter.acquire();
+        }
+        for (int i = 0; i < calls; i++) {
+            limiter.onSuccess(latencyNanos);
+        }
+    }
+}
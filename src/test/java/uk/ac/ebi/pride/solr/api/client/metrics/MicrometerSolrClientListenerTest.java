@@ -0,0 +1,53 @@
+package uk.ac.ebi.pride.solr.api.client.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryPolicy;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MicrometerSolrClientListenerTest {
+
+    private static final String ENDPOINT = "/project/findByAccession";
+
+    @Test
+    void recordsAttemptsRetriesAndSizes() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        AtomicInteger calls = new AtomicInteger();
+        byte[] project = "{\"accession\":\"PXD000001\"}".getBytes();
+        server.createContext(ENDPOINT, exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                exchange.sendResponseHeaders(503, -1);
+            } else {
+                exchange.sendResponseHeaders(200, project.length);
+                exchange.getResponseBody().write(project);
+            }
+            exchange.close();
+        });
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (SolrApiClientFactory factory = new SolrApiClientFactory(SolrApiClientConfig.builder()
+                .apiBaseUrl("http://localhost:" + server.getAddress().getPort())
+                .apiKeyName("key").apiKeyValue("value").appName("test")
+                .retryPolicy(RetryPolicy.builder().initialBackoff(Duration.ofMillis(1)).build())
+                .listener(new MicrometerSolrClientListener(registry))
+                .build())) {
+            Assertions.assertTrue(factory.getSolrProjectClient().findByAccession("PXD000001").isPresent());
+        } finally {
+            server.stop(0);
+        }
+
+        Assertions.assertEquals(1, registry.get("pride.solr.client.requests").tag("endpoint", ENDPOINT).tag("outcome", "error").timer().count());
+        Assertions.assertEquals(1, registry.get("pride.solr.client.requests").tag("endpoint", ENDPOINT).tag("outcome", "success").timer().count());
+        Assertions.assertEquals(1, registry.get("pride.solr.client.retries").tag("endpoint", ENDPOINT).counter().count());
+        Assertions.assertEquals(project.length, registry.get("pride.solr.client.response.size").tag("endpoint", ENDPOINT).summary().totalAmount());
+        Assertions.assertEquals(0, registry.get("pride.solr.client.in.flight").tag("endpoint", ENDPOINT).gauge().value());
+        Assertions.assertTrue(registry.find("pride.solr.client.failures").counters().isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package uk.ac.ebi.pride.solr.api.client.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+class ProjectPatchTest {
+
+    @Test
+    void diffOnlyHoldsChangedFields() {
+        PrideSolrProject before = project();
+        PrideSolrProject after = project();
+        after.setTitle("New title");
+        after.setKeywords(new HashSet<>(Set.of("liver", "human")));
+        after.setDoi(null);
+
+        ProjectPatch patch = ProjectPatch.diff(before, after);
+        Assertions.assertEquals("id1", patch.getId());
+        Assertions.assertEquals(Set.of("title", "keywords", "doi"), patch.getOperations().keySet());
+        Assertions.assertEquals("New title", ((JsonNode) patch.getOperations().get("title").get(ProjectPatch.SET)).asText());
+        Assertions.assertEquals(1, ((List<?>) patch.getOperations().get("keywords").get(ProjectPatch.ADD)).size());
+        Assertions.assertEquals(1, ((List<?>) patch.getOperations().get("keywords").get(ProjectPatch.REMOVE)).size());
+        Assertions.assertTrue(patch.getOperations().get("doi").containsKey(ProjectPatch.SET));
+        Assertions.assertTrue(ProjectPatch.diff(before, project()).isEmpty());
+    }
+
+    @Test
+    void orderedArraysAreSetUnlessOnlyAppendedTo() {
+        PrideSolrProject before = project();
+        before.setInstruments(List.of("Orbitrap", "Q Exactive", "Orbitrap"));
+
+        PrideSolrProject reordered = project();
+        reordered.setInstruments(List.of("Q Exactive", "Orbitrap", "Orbitrap"));
+        Assertions.assertEquals(Set.of(ProjectPatch.SET), ProjectPatch.diff(before, reordered).getOperations().get("instruments").keySet());
+        Assertions.assertEquals(reordered.getInstruments(), ProjectPatch.diff(before, reordered).applyTo(before).getInstruments());
+
+        PrideSolrProject deduplicated = project();
+        deduplicated.setInstruments(List.of("Orbitrap", "Q Exactive"));
+        Assertions.assertEquals(deduplicated.getInstruments(), ProjectPatch.diff(before, deduplicated).applyTo(before).getInstruments());
+
+        PrideSolrProject appended = project();
+        appended.setInstruments(List.of("Orbitrap", "Q Exactive", "Orbitrap", "TripleTOF"));
+        ProjectPatch patch = ProjectPatch.diff(before, appended);
+        Assertions.assertEquals(Set.of(ProjectPatch.ADD), patch.getOperations().get("instruments").keySet());
+        Assertions.assertEquals(appended.getInstruments(), patch.applyTo(before).getInstruments());
+    }
+
+    @Test
+    void patchIsAppliedByTheApi() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = InMemoryApiFixtures.factory(server)) {
+            server.seed(List.of(project()));
+            SolrProjectClient client = factory.getSolrProjectClient();
+            client.patch(ProjectPatch.builder("id1").set("title", "Patched").add("keywords", "kidney").remove("keywords", "mouse").build());
+            PrideSolrProject patched = client.findByAccession("PXD000001").orElseThrow();
+            Assertions.assertEquals("Patched", patched.getTitle());
+            Assertions.assertEquals(Set.of("liver", "kidney"), patched.getKeywords());
+            Assertions.assertEquals(Set.of("a.raw", "b.raw"), patched.getProjectFileNames());
+
+            PrideSolrProject echoed = client.patchAndGet(ProjectPatch.builder(patched).add("keywords", "kidney").build());
+            Assertions.assertEquals(Set.of("liver", "kidney"), echoed.getKeywords());
+            Assertions.assertEquals(Map.of("id", "id1", "accession", "PXD000001"), ProjectPatch.builder(patched).build().toDocument());
+        }
+    }
+
+    @Test
+    void fallsBackToFullUpdatesWithoutPartialUpdateEndpoint() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start()) {
+            server.seed(List.of(project()));
+            SolrApiClientConfig config = InMemoryApiFixtures.config(server).toBuilder()
+                    .partialUpdatePath("/project/atomicUpdate")
+                    .build();
+            try (SolrApiClientFactory factory = new SolrApiClientFactory(config)) {
+                SolrProjectClient client = factory.getSolrProjectClient();
+                PrideSolrProject current = client.findByAccession("PXD000001").orElseThrow();
+                client.patch(ProjectPatch.builder(current).set("title", "Patched").add("keywords", "kidney").remove("keywords", "mouse").build());
+                PrideSolrProject echoed = factory.getSolrProjectAsyncClient()
+                        .patchAndGet(ProjectPatch.builder(current).set("doi", null).build()).get(10, TimeUnit.SECONDS);
+
+                Assertions.assertEquals("Patched", echoed.getTitle());
+                Assertions.assertEquals(Set.of("liver", "kidney"), echoed.getKeywords());
+                Assertions.assertNull(echoed.getDoi());
+                Assertions.assertEquals(echoed.getTitle(), client.findByAccession("PXD000001").orElseThrow().getTitle());
+                // only the first patch tried the missing endpoint
+                Assertions.assertEquals(1, server.getRequestCount("/project/atomicUpdate"));
+                Assertions.assertEquals(2, server.getRequestCount("/project/update"));
+                // the project can not be read without its accession
+                Assertions.assertThrows(IllegalStateException.class, () -> client.patch(ProjectPatch.builder("id1").set("title", "Lost").build()));
+            }
+        }
+    }
+
+    @Test
+    void applyToMatchesTheApi() {
+        PrideSolrProject patched = ProjectPatch.builder("id1").set("title", "Patched").set("doi", null)
+                .add("keywords", "kidney", "liver").remove("keywords", "mouse").build().applyTo(project());
+        Assertions.assertEquals("Patched", patched.getTitle());
+        Assertions.assertNull(patched.getDoi());
+        Assertions.assertEquals(Set.of("liver", "kidney"), patched.getKeywords());
+        Assertions.assertEquals(Set.of("a.raw", "b.raw"), patched.getProjectFileNames());
+    }
+
+    private static PrideSolrProject project() {
+        PrideSolrProject project = InMemoryApiFixtures.project("PXD000001", "id1", "Title");
+        project.setDoi("10.1000/1");
+        project.setKeywords(new HashSet<>(Set.of("liver", "mouse")));
+        project.setProjectFileNames(new HashSet<>(Set.of("a.raw", "b.raw")));
+        return project;
+    }
+}
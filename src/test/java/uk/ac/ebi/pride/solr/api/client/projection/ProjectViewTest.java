@@ -0,0 +1,70 @@
+package uk.ac.ebi.pride.solr.api.client.projection;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.util.List;
+import java.util.Set;
+
+class ProjectViewTest {
+
+    private static final String PROJECT = "{\"id\":\"5c1a\",\"accession\":\"PXD000001\",\"title\":\"A title\","
+            + "\"keywords\":[\"liver\",\"mouse\"],\"projectFileNames\":[\"a.raw\",\"b.raw\",\"c.mzML\"],"
+            + "\"projectDescription\":{\"unexpected\":[1,2,3]},\"doi\":null}";
+
+    private final ObjectMapper objectMapper = Utils.getJacksonObjectMapper();
+
+    @Test
+    void decodesFieldsOnFirstAccess() throws Exception {
+        ProjectView view = read(null);
+        Assertions.assertEquals(Set.of("id", "accession", "title", "keywords", "projectFileNames", "projectDescription"),
+                view.getFieldNames());
+        Assertions.assertFalse(view.isDecoded(ProjectFields.PROJECT_FILE_NAMES));
+        Assertions.assertEquals("A title", view.getTitle());
+        Assertions.assertFalse(view.isDecoded(ProjectFields.PROJECT_FILE_NAMES));
+        Assertions.assertEquals(Set.of("a.raw", "b.raw", "c.mzML"), view.getProjectFileNames());
+        Assertions.assertTrue(view.isDecoded(ProjectFields.PROJECT_FILE_NAMES));
+        Assertions.assertSame(view.getProjectFileNames(), view.getProjectFileNames());
+        Assertions.assertNull(view.getPeptideSequences());
+    }
+
+    @Test
+    void projectionKeepsRequestedFieldsAndKeys() throws Exception {
+        ProjectView view = read(Set.of(ProjectFields.TITLE));
+        Assertions.assertEquals(Set.of("id", "accession", "title"), view.getFieldNames());
+        PrideSolrProject project = view.toProject();
+        Assertions.assertEquals("PXD000001", project.getAccession());
+        Assertions.assertEquals("A title", project.getTitle());
+        Assertions.assertNull(project.getProjectFileNames());
+    }
+
+    @Test
+    void findByAccessionWithFieldList() throws Exception {
+        PrideSolrProject project = InMemoryApiFixtures.project("PXD000002", "id2", "Stored");
+        project.setProjectFileNames(Set.of("x.raw", "y.raw"));
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = InMemoryApiFixtures.factory(server)) {
+            server.seed(List.of(project));
+            SolrProjectClient client = factory.getSolrProjectClient();
+            ProjectView view = client.findByAccession("PXD000002", Set.of(ProjectFields.TITLE)).orElseThrow();
+            Assertions.assertEquals("Stored", view.getTitle());
+            Assertions.assertFalse(view.has(ProjectFields.PROJECT_FILE_NAMES));
+            Assertions.assertEquals(Set.of("x.raw", "y.raw"), client.findByAccessionLazy("PXD000002").orElseThrow().getProjectFileNames());
+            Assertions.assertTrue(client.findByAccession("PXD999999", Set.of(ProjectFields.TITLE)).isEmpty());
+        }
+    }
+
+    private ProjectView read(Set<String> fields) throws Exception {
+        try (JsonParser parser = objectMapper.getFactory().createParser(PROJECT)) {
+            return ProjectView.read(parser, objectMapper, fields);
+        }
+    }
+}
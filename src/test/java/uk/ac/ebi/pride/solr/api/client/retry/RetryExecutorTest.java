@@ -0,0 +1,95 @@
+package uk.ac.ebi.pride.solr.api.client.retry;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RetryExecutorTest {
+
+    private static final RetryPolicy FAST = RetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(1))
+            .maxBackoff(Duration.ofMillis(5))
+            .build();
+
+    @Test
+    void retriesIdempotentCallUntilSuccess() throws InterruptedException {
+        RetryExecutor executor = new RetryExecutor(FAST);
+        AtomicInteger calls = new AtomicInteger();
+        String result = executor.execute("GET /test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        }, true);
+        Assertions.assertEquals("ok", result);
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    void doesNotRetryNonIdempotentCallOnServerError() {
+        RetryExecutor executor = new RetryExecutor(FAST);
+        AtomicInteger calls = new AtomicInteger();
+        Assertions.assertThrows(HttpServerErrorException.class, () -> executor.execute("POST /saveAll", () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }, false));
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void retriesThrottledNonIdempotentCall() throws InterruptedException {
+        RetryExecutor executor = new RetryExecutor(FAST);
+        AtomicInteger calls = new AtomicInteger();
+        executor.execute("POST /saveAll", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            }
+            return null;
+        }, false);
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailures() {
+        RetryExecutor executor = new RetryExecutor(FAST.toBuilder()
+                .maxAttempts(1)
+                .circuitBreakerFailureThreshold(3)
+                .circuitBreakerOpenDuration(Duration.ofMinutes(1))
+                .build());
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(HttpServerErrorException.class, () -> executor.execute("GET /test", () -> {
+                calls.incrementAndGet();
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }, true));
+        }
+        Assertions.assertThrows(CircuitBreakerOpenException.class, () -> executor.execute("GET /test", () -> {
+            calls.incrementAndGet();
+            return "ok";
+        }, true));
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, executor.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void asyncRetriesWithoutBlocking() throws ExecutionException, InterruptedException {
+        RetryExecutor executor = new RetryExecutor(FAST);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = executor.executeAsync("GET /test", () -> CompletableFuture.supplyAsync(() -> {
+            if (calls.incrementAndGet() < 4) {
+                throw new HttpServerErrorException(HttpStatus.GATEWAY_TIMEOUT);
+            }
+            return "ok";
+        }), true, Executors.newVirtualThreadPerTaskExecutor());
+        Assertions.assertEquals("ok", result.get());
+        Assertions.assertEquals(4, calls.get());
+    }
+}
@@ -0,0 +1,162 @@
+package uk.ac.ebi.pride.solr.api.client.routing;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.metrics.RequestMetrics;
+import uk.ac.ebi.pride.solr.api.client.metrics.SolrClientListener;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryPolicy;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemoryServerConfig;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+class EndpointRouterTest {
+
+    @Test
+    void failingNodeIsEjected() throws Exception {
+        PrideSolrProject project = new PrideSolrProject();
+        project.setAccession("PXD000001");
+        InMemoryServerConfig failing = InMemoryServerConfig.builder().errorRate(1.0).build();
+        try (InMemorySolrApiServer down = InMemorySolrApiServer.start(failing);
+             InMemorySolrApiServer up = InMemorySolrApiServer.start()) {
+            up.seed(List.of(project));
+            try (SolrApiClientFactory factory = new SolrApiClientFactory(SolrApiClientConfig.of(null, "key", "value", "test").toBuilder()
+                    .apiBaseUrls(List.of(down.getBaseUrl(), up.getBaseUrl()))
+                    .retryPolicy(RetryPolicy.builder().maxBackoff(Duration.ofMillis(20)).build())
+                    .routing(RoutingConfig.builder().ejectionTime(Duration.ofMinutes(1)).build())
+                    .build())) {
+                SolrProjectClient client = factory.getSolrProjectClient();
+                for (int i = 0; i < 30; i++) {
+                    Assertions.assertTrue(client.findByAccession("PXD000001").isPresent());
+                }
+            }
+            // traffic moves away after the first failure, and the node is out for good after the third
+            Assertions.assertTrue(down.getRequestCount("/project/findByAccession") <= 3);
+            Assertions.assertEquals(30, up.getRequestCount("/project/findByAccession"));
+        }
+    }
+
+    @Test
+    void slowReadsAreHedged() throws Exception {
+        // the first copy of each "slow" read is held far beyond the bound below, only its hedged copy can answer in time
+        AtomicInteger slowReads = new AtomicInteger();
+        Predicate<String> firstCopyIsSlow = accession -> accession.equals("slow") && slowReads.getAndIncrement() % 2 == 0;
+        HttpServer one = server(Duration.ofSeconds(30), firstCopyIsSlow);
+        HttpServer two = server(Duration.ofSeconds(30), firstCopyIsSlow);
+        try (SolrApiClientFactory factory = new SolrApiClientFactory(SolrApiClientConfig.of(null, "key", "value", "test").toBuilder()
+                .apiBaseUrls(List.of(url(one), url(two)))
+                .routing(RoutingConfig.builder().hedgeReads(true).maxHedgeRatio(1).minHedgeDelay(Duration.ofMillis(50)).build())
+                .build())) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            // enough fast reads to derive the hedge delay from
+            for (int i = 0; i < 64; i++) {
+                client.findByAccession("PXD" + i);
+            }
+            for (int i = 0; i < 5; i++) {
+                long start = System.nanoTime();
+                Assertions.assertEquals("slow", client.findByAccession("slow").orElseThrow().getAccession());
+                Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+            }
+            // each read was sent twice: the held copy and the hedge that answered it
+            Assertions.assertEquals(10, slowReads.get());
+        } finally {
+            one.stop(0);
+            two.stop(0);
+        }
+    }
+
+    @Test
+    void losingHedgedCallIsAborted() throws Exception {
+        // whichever node gets the first "slow" read holds it, the hedged copy is answered at once
+        AtomicBoolean first = new AtomicBoolean(true);
+        Predicate<String> slowOnce = accession -> accession.equals("slow") && first.compareAndSet(true, false);
+        HttpServer one = server(Duration.ofSeconds(5), slowOnce);
+        HttpServer two = server(Duration.ofSeconds(5), slowOnce);
+        AtomicInteger inFlight = new AtomicInteger();
+        SolrClientListener listener = new SolrClientListener() {
+            @Override
+            public void onAttemptStart(String endpoint) {
+                inFlight.incrementAndGet();
+            }
+
+            @Override
+            public void onAttemptEnd(RequestMetrics metrics) {
+                inFlight.decrementAndGet();
+            }
+        };
+        try (SolrApiClientFactory factory = new SolrApiClientFactory(SolrApiClientConfig.of(null, "key", "value", "test").toBuilder()
+                .apiBaseUrls(List.of(url(one), url(two)))
+                .routing(RoutingConfig.builder().hedgeReads(true).maxHedgeRatio(1).minHedgeDelay(Duration.ofMillis(50)).build())
+                .listener(listener)
+                .build())) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            for (int i = 0; i < 64; i++) {
+                client.findByAccession("PXD" + i);
+            }
+            long start = System.nanoTime();
+            Assertions.assertEquals("slow", client.findByAccession("slow").orElseThrow().getAccession());
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+            // the held call ends well before the server would have answered it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(0, inFlight.get());
+        } finally {
+            one.stop(0);
+            two.stop(0);
+        }
+    }
+
+    /**
+     * Answers findByAccession with a minimal project, after the delay for the accession "slow"
+     */
+    private static HttpServer server(Duration slowDelay) throws Exception {
+        return server(slowDelay, accession -> accession.equals("slow"));
+    }
+
+    /**
+     * @param slow accessions answered after the delay
+     */
+    private static HttpServer server(Duration slowDelay, Predicate<String> slow) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/project/findByAccession", exchange -> {
+            String accession = exchange.getRequestURI().getQuery().replace("accession=", "");
+            try {
+                if (slow.test(accession)) {
+                    Thread.sleep(slowDelay.toMillis());
+                }
+                byte[] body = ("{\"accession\":\"" + accession + "\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (Exception e) {
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static String url(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,76 @@
+package uk.ac.ebi.pride.solr.api.client.search;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.pride.solr.api.client.utils.Utils;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SearchPageTest {
+
+    private final ObjectMapper objectMapper = Utils.getJacksonObjectMapper();
+
+    @Test
+    void readsFacetedPage() throws Exception {
+        SearchPage page;
+        try (InputStream in = getClass().getResourceAsStream("/a.json");
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            page = SearchPage.read(parser, objectMapper);
+        }
+        Assertions.assertEquals(5, page.getContent().size());
+        Assertions.assertEquals("PXD004732", page.getContent().get(0).getAccession());
+        Assertions.assertEquals(5, page.getTotalElements());
+        Assertions.assertTrue(page.isLast());
+
+        Assertions.assertEquals(20, page.getFacets().size());
+        List<FacetFieldEntry> tags = page.getFacets().get("project_tags_facet");
+        Assertions.assertEquals(new FacetFieldEntry("project_tags_facet", "Proteometools", 5), tags.get(0));
+        Assertions.assertTrue(page.getHighlighted().isEmpty());
+        Assertions.assertTrue(page.getFieldStats().isEmpty());
+    }
+
+    @Test
+    void iteratorPrefetchesNextPage() {
+        AtomicInteger calls = new AtomicInteger();
+        SearchResultIterator iterator = new SearchResultIterator(number -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(page(number, 3));
+        }, 0, 1);
+
+        List<String> accessions = new ArrayList<>();
+        Assertions.assertTrue(iterator.hasNext());
+        // page 0 is being consumed, page 1 is already requested
+        Assertions.assertEquals(2, calls.get());
+        iterator.forEachRemaining(project -> accessions.add(project.getAccession()));
+        Assertions.assertEquals(List.of("PXD000000", "PXD000001", "PXD000002"), accessions);
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    void streamCountsOnlyTheRemainingResults() {
+        SearchResultIterator iterator = new SearchResultIterator(number -> CompletableFuture.completedFuture(page(number, 5)), 0, 1);
+        iterator.next();
+        iterator.next();
+        Assertions.assertEquals(5, iterator.getTotalElements());
+        Assertions.assertEquals(3, iterator.stream().count());
+
+        SearchResultIterator fromSecondPage = new SearchResultIterator(number -> CompletableFuture.completedFuture(page(number, 5)), 1, 1);
+        Assertions.assertEquals(4, fromSecondPage.stream().count());
+    }
+
+    private SearchPage page(int number, int totalPages) {
+        String json = "{\"content\":[{\"accession\":\"PXD00000" + number + "\"}],\"totalElements\":" + totalPages
+                + ",\"totalPages\":" + totalPages + ",\"number\":" + number + ",\"size\":1,\"last\":" + (number == totalPages - 1) + "}";
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return SearchPage.read(parser, objectMapper);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
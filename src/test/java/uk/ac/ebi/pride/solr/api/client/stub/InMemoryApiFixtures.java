@@ -0,0 +1,43 @@
+package uk.ac.ebi.pride.solr.api.client.stub;
+
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientConfig;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryPolicy;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+/**
+ * Clients and projects shared by the tests running against an {@link InMemorySolrApiServer}.
+ * Factories are returned open, close them with try-with-resources.
+ */
+public final class InMemoryApiFixtures {
+
+    private InMemoryApiFixtures() {
+    }
+
+    public static SolrApiClientConfig config(InMemorySolrApiServer server) {
+        return SolrApiClientConfig.of(server.getBaseUrl(), "key", "value", "test");
+    }
+
+    public static SolrApiClientFactory factory(InMemorySolrApiServer server) {
+        return new SolrApiClientFactory(config(server));
+    }
+
+    public static SolrApiClientFactory factory(InMemorySolrApiServer server, RetryPolicy retryPolicy) {
+        return new SolrApiClientFactory(config(server).toBuilder().retryPolicy(retryPolicy).build());
+    }
+
+    /**
+     * @return project with id {@code id-<accession>} and title {@code title of <accession>}
+     */
+    public static PrideSolrProject project(String accession) {
+        return project(accession, "id-" + accession, "title of " + accession);
+    }
+
+    public static PrideSolrProject project(String accession, String id, String title) {
+        PrideSolrProject project = new PrideSolrProject();
+        project.setId(id);
+        project.setAccession(accession);
+        project.setTitle(title);
+        return project;
+    }
+}
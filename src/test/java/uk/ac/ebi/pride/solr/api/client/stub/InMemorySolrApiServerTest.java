@@ -0,0 +1,100 @@
+package uk.ac.ebi.pride.solr.api.client.stub;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryPolicy;
+import uk.ac.ebi.pride.solr.api.client.search.KeywordSearchRequest;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class InMemorySolrApiServerTest {
+
+    @Test
+    void implementsProjectEndpoints() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = InMemoryApiFixtures.factory(server)) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            List<PrideSolrProject> projects = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                projects.add(project("PXD0000" + (10 + i)));
+            }
+            client.saveAll(projects);
+            PrideSolrProject saved = client.save(project("PXD000001"));
+            Assertions.assertNotNull(saved.getId());
+            Assertions.assertEquals(26, client.findAllAccessions().orElseThrow().size());
+            Assertions.assertEquals("PXD000001", client.findByAccession("PXD000001").orElseThrow().getAccession());
+
+            List<String> found = new ArrayList<>();
+            client.findAllByKeyword(KeywordSearchRequest.builder().pageSize(10).build(), 1)
+                    .forEachRemaining(project -> found.add(project.getAccession()));
+            Assertions.assertEquals(26, found.size());
+
+            // saved again under a new id, the old id no longer points at it
+            PrideSolrProject resaved = project("PXD000001");
+            resaved.setId("new-id");
+            client.save(resaved);
+            Assertions.assertFalse(client.findAllIds().orElseThrow().contains(String.valueOf(saved.getId())));
+            client.deleteProjectById(String.valueOf(saved.getId()));
+            Assertions.assertTrue(client.findByAccession("PXD000001").isPresent());
+
+            client.deleteProjectById("new-id");
+            Assertions.assertTrue(client.findByAccession("PXD000001").isEmpty());
+            client.deleteAll();
+            Assertions.assertEquals(0, server.getProjectCount());
+        }
+    }
+
+    @Test
+    void throttledRequestsAreRetried() throws Exception {
+        InMemoryServerConfig config = InMemoryServerConfig.builder().maxRequestsPerSecond(1).build();
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start(config);
+             SolrApiClientFactory factory = InMemoryApiFixtures.factory(server,
+                     RetryPolicy.builder().maxBackoff(Duration.ofSeconds(2)).build())) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            client.findAllIds();
+            client.findAllIds();
+            Assertions.assertEquals(3, server.getRequestCount("/project/findAllIds"));
+        }
+    }
+
+    @Test
+    void invalidBatchIsRejectedWithoutStoringAnything() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = InMemoryApiFixtures.factory(server)) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            HttpClientErrorException error = Assertions.assertThrows(HttpClientErrorException.class,
+                    () -> client.saveAll(List.of(project("PXD000001"), new PrideSolrProject())));
+            Assertions.assertEquals(400, error.getStatusCode().value());
+            // a 400 is not retried
+            Assertions.assertEquals(1, server.getRequestCount("/project/saveAll"));
+            Assertions.assertEquals(0, server.getProjectCount());
+        }
+    }
+
+    @Test
+    void loadGeneratorReportsPercentiles() throws Exception {
+        LoadReport report = LoadGenerator.builder()
+                .requestsPerSecond(200)
+                .duration(Duration.ofMillis(500))
+                .warmup(Duration.ZERO)
+                .build()
+                .run(sequence -> TimeUnit.MILLISECONDS.sleep(sequence % 100 == 0 ? 20 : 2));
+        Assertions.assertEquals(100, report.completed());
+        Assertions.assertEquals(0, report.errors());
+        Assertions.assertTrue(report.p50Millis() >= 2 && report.p50Millis() < 20, report.toString());
+        Assertions.assertTrue(report.p999Millis() >= 19, report.toString());
+    }
+
+    private static PrideSolrProject project(String accession) {
+        PrideSolrProject project = new PrideSolrProject();
+        project.setAccession(accession);
+        return project;
+    }
+}
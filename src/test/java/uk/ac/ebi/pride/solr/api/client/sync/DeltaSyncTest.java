@@ -0,0 +1,104 @@
+package uk.ac.ebi.pride.solr.api.client.sync;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+import uk.ac.ebi.pride.solr.commons.PrideSolrProject;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import static uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures.factory;
+import static uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures.project;
+
+class DeltaSyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sendsOnlyChangedProjectsAndDeletesRemovedOnes() throws Exception {
+        Path manifestPath = tempDir.resolve("manifest.bin");
+        List<PrideSolrProject> source = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            source.add(project("PXD0000" + (10 + i), "id" + i, "title " + i));
+        }
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = factory(server)) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            DeltaSyncOptions options = DeltaSyncOptions.builder().batchSize(8).build();
+
+            try (HashManifest manifest = HashManifest.open(manifestPath)) {
+                DeltaSyncReport first = new DeltaSync(client, manifest, options).sync(source);
+                Assertions.assertEquals(20, first.upserted());
+                Assertions.assertEquals(3, server.getRequestCount("/project/saveAll"));
+
+                DeltaSyncReport second = new DeltaSync(client, manifest, options).sync(source);
+                Assertions.assertEquals(20, second.unchanged());
+                Assertions.assertEquals(0, second.upserted());
+                Assertions.assertEquals(3, server.getRequestCount("/project/saveAll"));
+            }
+
+            source.get(0).setTitle("changed");
+            source.remove(1);
+            // the manifest is read back from disk
+            try (HashManifest manifest = HashManifest.open(manifestPath)) {
+                Assertions.assertEquals(20, manifest.size());
+                DeltaSyncReport third = new DeltaSync(client, manifest, options).sync(source);
+                Assertions.assertTrue(third.isSuccessful());
+                Assertions.assertEquals(1, third.upserted());
+                Assertions.assertEquals(1, third.deleted());
+                Assertions.assertEquals(18, third.unchanged());
+                Assertions.assertEquals(19, manifest.size());
+            }
+            Assertions.assertEquals(19, server.getProjectCount());
+            Assertions.assertEquals("changed", client.findByAccession("PXD000010").orElseThrow().getTitle());
+            Assertions.assertTrue(client.findByAccession("PXD000011").isEmpty());
+
+            // refused before the changed project is sent
+            source.get(2).setTitle("changed too");
+            long saveAlls = server.getRequestCount("/project/saveAll");
+            try (HashManifest manifest = HashManifest.open(manifestPath)) {
+                Assertions.assertThrows(IllegalStateException.class,
+                        () -> new DeltaSync(client, manifest, options).sync(source.subList(0, 5)));
+                Assertions.assertEquals(19, server.getProjectCount());
+                Assertions.assertEquals(saveAlls, server.getRequestCount("/project/saveAll"));
+                Assertions.assertEquals("title 3", client.findByAccession("PXD000013").orElseThrow().getTitle());
+            }
+        }
+    }
+
+    @Test
+    void projectsTheManifestCanNotRecordAreNotSent() throws Exception {
+        List<PrideSolrProject> source = List.of(project("PXD000001", "id1", "title"),
+                project("PXD000002", "x".repeat(HashManifest.MAX_ID_BYTES + 1), "title"));
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = factory(server);
+             HashManifest manifest = HashManifest.open(tempDir.resolve("manifest.bin"))) {
+            SolrProjectClient client = factory.getSolrProjectClient();
+            DeltaSyncReport report = new DeltaSync(client, manifest).sync(source);
+            Assertions.assertEquals(1, report.upserted());
+            Assertions.assertEquals(List.of("PXD000002"), report.failedUpserts());
+            Assertions.assertEquals(1, server.getProjectCount());
+            Assertions.assertEquals(1, manifest.size());
+        }
+    }
+
+    @Test
+    void hashDoesNotDependOnSetOrder() {
+        PrideSolrProject first = project("PXD000001", "id", "title");
+        PrideSolrProject second = project("PXD000001", "id", "title");
+        first.setKeywords(new LinkedHashSet<>(List.of("b", "a", "c")));
+        second.setKeywords(new TreeSet<>(List.of("c", "b", "a")));
+        ProjectHasher hasher = new ProjectHasher();
+        Assertions.assertEquals(hasher.hash(first), hasher.hash(second));
+        second.setTitle("other");
+        Assertions.assertNotEquals(hasher.hash(first), hasher.hash(second));
+    }
+}
@@ -0,0 +1,46 @@
+package uk.ac.ebi.pride.solr.api.client.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class CompactSetsTest {
+
+    @Test
+    void accessionsRoundTrip() {
+        Set<String> accessions = Set.of("PXD000001", "PXD004732", "PRD000123", "PXD999999", "randomAccession");
+        CompactAccessionSet.Builder builder = CompactAccessionSet.builder();
+        accessions.forEach(builder::add);
+        builder.add("PXD004732");
+        CompactAccessionSet compact = builder.build();
+
+        Assertions.assertEquals(accessions.size(), compact.size());
+        Assertions.assertEquals(accessions, new HashSet<>(compact));
+        Assertions.assertTrue(compact.contains("PRD000123"));
+        Assertions.assertFalse(compact.contains("PXD000123"));
+        Assertions.assertFalse(compact.contains("PXD04732"));
+    }
+
+    @Test
+    void idsRoundTrip() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(String.format("%08x%016x", i * 7919, (long) i * 0x9E3779B97F4A7C15L));
+        }
+        ids.add("5e67a389842b73040854e7e0");
+        ids.add("ffffffffffffffffffffffff");
+        ids.add("randomId");
+        CompactIdSet.Builder builder = CompactIdSet.builder();
+        ids.forEach(builder::add);
+        ids.forEach(builder::add);
+        CompactIdSet compact = builder.build();
+
+        Assertions.assertEquals(ids.size(), compact.size());
+        Assertions.assertEquals(ids, new HashSet<>(compact));
+        Assertions.assertTrue(compact.contains("5e67a389842b73040854e7e0"));
+        Assertions.assertFalse(compact.contains("5e67a389842b73040854e7e1"));
+        Assertions.assertFalse(compact.contains("5E67A389842B73040854E7E0"));
+    }
+}
@@ -0,0 +1,44 @@
+package uk.ac.ebi.pride.solr.api.client.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class JsonStringArraysTest {
+
+    private final JsonFactory factory = Utils.getJacksonObjectMapper().getFactory();
+
+    @Test
+    void readsScalarsAndSkipsNulls() throws IOException {
+        List<String> values = new ArrayList<>();
+        Assertions.assertTrue(read("[\"PXD000001\",null,\"PXD000002\",3]", values));
+        Assertions.assertEquals(List.of("PXD000001", "PXD000002", "3"), values);
+
+        Assertions.assertFalse(read("", values));
+        Assertions.assertFalse(read("null", values));
+        Assertions.assertTrue(read("[]", values));
+        Assertions.assertEquals(3, values.size());
+    }
+
+    @Test
+    void nonStringArrayElementsAreRejected() {
+        List<String> values = new ArrayList<>();
+        Assertions.assertThrows(JsonParseException.class, () -> read("[\"5c1a\",{\"id\":\"5c1b\"}]", values));
+        Assertions.assertThrows(JsonParseException.class, () -> read("[\"5c1a\",[\"5c1b\"]]", values));
+        Assertions.assertThrows(JsonParseException.class, () -> read("{\"id\":\"5c1a\"}", values));
+        Assertions.assertThrows(JsonParseException.class, () -> read("[\"5c1a\"", values));
+        Assertions.assertFalse(values.contains(null));
+    }
+
+    private boolean read(String json, List<String> values) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return JsonStringArrays.read(parser, values::add);
+        }
+    }
+}
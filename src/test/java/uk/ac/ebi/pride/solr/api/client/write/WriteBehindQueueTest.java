@@ -0,0 +1,141 @@
+package uk.ac.ebi.pride.solr.api.client.write;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.ebi.pride.solr.api.client.SolrApiClientFactory;
+import uk.ac.ebi.pride.solr.api.client.SolrProjectClient;
+import uk.ac.ebi.pride.solr.api.client.retry.RetryPolicy;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemoryServerConfig;
+import uk.ac.ebi.pride.solr.api.client.stub.InMemorySolrApiServer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures.factory;
+import static uk.ac.ebi.pride.solr.api.client.stub.InMemoryApiFixtures.project;
+
+class WriteBehindQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void coalescesWritesPerAccession() throws Exception {
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = factory(server)) {
+            server.seed(List.of(project("PXD000003", "id3", "to delete")));
+            SolrProjectClient client = factory.getSolrProjectClient();
+            try (WriteBehindQueue queue = WriteBehindQueue.open(client, config(64 * 1024))) {
+                queue.save(project("PXD000001", "id1", "first"));
+                queue.save(project("PXD000001", "id1", "second"));
+                queue.save(project("PXD000002", "id2", "other"));
+                queue.delete("PXD000003", "id3");
+                Assertions.assertEquals(3, queue.getPendingCount());
+                Assertions.assertEquals(0, server.getRequestCount("/project/saveAll"));
+
+                queue.flush();
+                Assertions.assertEquals(0, queue.getPendingCount());
+            }
+            Assertions.assertEquals(1, server.getRequestCount("/project/saveAll"));
+            Assertions.assertEquals("second", client.findByAccession("PXD000001").orElseThrow().getTitle());
+            Assertions.assertTrue(client.findByAccession("PXD000003").isEmpty());
+            Assertions.assertEquals(2, server.getProjectCount());
+        }
+    }
+
+    @Test
+    void replaysUnsentWritesAfterACrash() throws Exception {
+        Path crashImage = tempDir.resolve("crash");
+        Files.createDirectories(crashImage);
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start();
+             InMemorySolrApiServer before = InMemorySolrApiServer.start();
+             SolrApiClientFactory factory = factory(server);
+             SolrApiClientFactory beforeFactory = factory(before)) {
+            SolrProjectClient beforeClient = beforeFactory.getSolrProjectClient();
+            // small enough to be compacted a few times
+            try (WriteBehindQueue crashed = WriteBehindQueue.open(beforeClient, config(tempDir, 2048))) {
+                for (int i = 0; i < 100; i++) {
+                    crashed.save(project("PXD00000" + (i % 5), "id" + (i % 5), "version " + i));
+                }
+                Assertions.assertThrows(IOException.class, () -> WriteBehindQueue.open(beforeClient, config(tempDir, 2048)));
+                // what a crash leaves on disk: the log with nothing sent yet
+                Files.copy(tempDir.resolve(WriteBehindQueue.LOG_FILE), crashImage.resolve(WriteBehindQueue.LOG_FILE));
+            }
+
+            SolrProjectClient client = factory.getSolrProjectClient();
+            WriteBehindConfig config = config(crashImage, 2048);
+            try (WriteBehindQueue queue = WriteBehindQueue.open(client, config)) {
+                Assertions.assertEquals(5, queue.getPendingCount());
+                queue.flush();
+            }
+            Assertions.assertEquals(5, server.getProjectCount());
+            Assertions.assertEquals("version 99", client.findByAccession("PXD000004").orElseThrow().getTitle());
+
+            try (WriteBehindQueue queue = WriteBehindQueue.open(client, config)) {
+                Assertions.assertEquals(0, queue.getPendingCount());
+            }
+        }
+    }
+
+    @Test
+    void givesUpWritesTheApiRejects() throws Exception {
+        InMemoryServerConfig rejectAll = InMemoryServerConfig.builder().errorRate(1).errorStatus(400).build();
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start(rejectAll);
+             SolrApiClientFactory factory = factory(server, RetryPolicy.none())) {
+            List<DeadLetter> deadLetters = new CopyOnWriteArrayList<>();
+            WriteBehindConfig config = WriteBehindConfig.builder().directory(tempDir).flushInterval(Duration.ofHours(1))
+                    .deadLetterHandler(deadLetters::add).build();
+            try (WriteBehindQueue queue = WriteBehindQueue.open(factory.getSolrProjectClient(), config)) {
+                queue.save(project("PXD000001", "id1", "first"));
+                queue.save(project("PXD000002", "id2", "second"));
+                queue.delete("PXD000003", "id3");
+                queue.flush();
+                Assertions.assertEquals(0, queue.getPendingCount());
+            }
+            // the batch, then each save alone to find the rejected ones
+            Assertions.assertEquals(3, server.getRequestCount("/project/saveAll"));
+            Assertions.assertEquals(3, deadLetters.size());
+            Assertions.assertTrue(deadLetters.get(2).delete());
+            Assertions.assertEquals(3, Files.readAllLines(tempDir.resolve(WriteBehindQueue.DEAD_LETTER_FILE)).size());
+        }
+    }
+
+    @Test
+    void givesUpRetryableFailuresAfterMaxAttempts() throws Exception {
+        InMemoryServerConfig down = InMemoryServerConfig.builder().errorRate(1).errorStatus(503).build();
+        try (InMemorySolrApiServer server = InMemorySolrApiServer.start(down);
+             SolrApiClientFactory factory = factory(server, RetryPolicy.none())) {
+            List<DeadLetter> deadLetters = new CopyOnWriteArrayList<>();
+            WriteBehindConfig config = WriteBehindConfig.builder().directory(tempDir).flushInterval(Duration.ofHours(1))
+                    .maxAttempts(2).deadLetterHandler(deadLetters::add).build();
+            try (WriteBehindQueue queue = WriteBehindQueue.open(factory.getSolrProjectClient(), config)) {
+                queue.save(project("PXD000001", "id1", "first"));
+                Assertions.assertThrows(RuntimeException.class, queue::flush);
+                Assertions.assertEquals(1, queue.getPendingCount());
+                Assertions.assertTrue(deadLetters.isEmpty());
+
+                Assertions.assertThrows(RuntimeException.class, queue::flush);
+                Assertions.assertEquals(0, queue.getPendingCount());
+            }
+            Assertions.assertEquals(1, deadLetters.size());
+            Assertions.assertEquals(2, deadLetters.get(0).attempts());
+        }
+    }
+
+    private WriteBehindConfig config(int logSize) {
+        return config(tempDir, logSize);
+    }
+
+    private static WriteBehindConfig config(Path directory, int logSize) {
+        return WriteBehindConfig.builder()
+                .directory(directory)
+                .logSize(logSize)
+                .flushInterval(Duration.ofHours(1))
+                .build();
+    }
+}